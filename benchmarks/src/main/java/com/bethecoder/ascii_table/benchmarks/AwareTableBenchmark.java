@@ -0,0 +1,110 @@
+package com.bethecoder.ascii_table.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.impl.HTMLASCIITableImpl;
+import com.bethecoder.ascii_table.impl.SimpleASCIITableImpl;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+import com.bethecoder.ascii_table.spec.IASCIITable;
+import com.bethecoder.ascii_table.spec.IASCIITableAware;
+
+/**
+ * Renders tables through {@link IASCIITableAware}, where every cell goes
+ * through {@link IASCIITableAware#formatData} before it is measured.
+ *
+ * @author ben
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class AwareTableBenchmark {
+	/*
+	 * A table of strings held as lists of rows
+	 */
+	private static final class ListTableAware
+			implements IASCIITableAware<String> {
+		private final List<ASCIITableHeader>	headers;
+
+		private final List<List<String>>		data;
+
+		public ListTableAware(ASCIITableHeader[] headers, String[][] cells) {
+			this.headers = Arrays.asList(headers);
+
+			data = new ArrayList<>(cells.length);
+
+			for (String[] row : cells) {
+				data.add(Arrays.asList(row));
+			}
+		}
+
+		@Override
+		public String formatData(ASCIITableHeader header, int row, int col,
+				String cell) {
+			return cell;
+		}
+
+		@Override
+		public List<List<String>> getData() {
+			return data;
+		}
+
+		@Override
+		public List<ASCIITableHeader> getHeaders() {
+			return headers;
+		}
+	}
+
+	@Param({ "10x1", "10x100", "1000x10", "10000x100", "100000x10",
+			"1000000x1" })
+	public String					shape;
+
+	@Param({ "8", "32" })
+	public int						cellLength;
+
+	@Param({ "ALIGN_LEFT", "ALIGN_CENTER", "ALIGN_RIGHT" })
+	public AlignmentValues			alignment;
+
+	private IASCIITableAware<String>	table;
+
+	private final IASCIITable		simple	= new SimpleASCIITableImpl();
+
+	private final IASCIITable		html	= new HTMLASCIITableImpl();
+
+	@Setup
+	public void setUp() {
+		int[] size = TableData.parseShape(shape);
+
+		table = new ListTableAware(TableData.headers(size[1], alignment),
+				TableData.cells(size[0], size[1], cellLength));
+	}
+
+	@Benchmark
+	public String simpleGetTable() {
+		return simple.getTable(table);
+	}
+
+	@Benchmark
+	public String htmlGetTable() {
+		return html.getTable(table);
+	}
+}
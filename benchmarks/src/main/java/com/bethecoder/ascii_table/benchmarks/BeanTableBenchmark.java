@@ -0,0 +1,156 @@
+package com.bethecoder.ascii_table.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bethecoder.ascii_table.impl.CollectionASCIITableAware;
+import com.bethecoder.ascii_table.impl.LazyCollectionASCIITableAware;
+import com.bethecoder.ascii_table.impl.SimpleASCIITableImpl;
+import com.bethecoder.ascii_table.spec.IASCIITable;
+
+/**
+ * Renders tables of javabeans, reading each cell through the bean's
+ * getter. The table is built from the beans inside the benchmark, since
+ * that is where the properties are read.
+ *
+ * @author ben
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class BeanTableBenchmark {
+	/**
+	 * A bean with a mix of property types
+	 */
+	public static final class Order {
+		private final long		id;
+		private final String	name;
+		private final double	price;
+		private final int		quantity;
+		private final boolean	active;
+		private final String	code;
+		private final long		created;
+		private final double	weight;
+		private final String	note;
+		private final String	region;
+
+		Order(Random random, String[] pool) {
+			id = random.nextLong();
+			name = pool[random.nextInt(pool.length)];
+			price = random.nextInt(1000000) / 100.0;
+			quantity = random.nextInt(1000);
+			active = random.nextBoolean();
+			code = pool[random.nextInt(pool.length)];
+			created = random.nextInt() & 0xFFFFFFFFL;
+			weight = random.nextDouble() * 100;
+			note = pool[random.nextInt(pool.length)];
+			region = pool[random.nextInt(pool.length)];
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public double getPrice() {
+			return price;
+		}
+
+		public int getQuantity() {
+			return quantity;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public long getCreated() {
+			return created;
+		}
+
+		public double getWeight() {
+			return weight;
+		}
+
+		public String getNote() {
+			return note;
+		}
+
+		public String getRegion() {
+			return region;
+		}
+	}
+
+	// The properties of an order, in column order
+	private static final String[]	PROPERTIES	= { "id", "name", "price",
+			"quantity", "active", "code", "created", "weight", "note",
+			"region" };
+
+	@Param({ "10", "1000", "100000", "1000000" })
+	public int						rows;
+
+	@Param({ "1", "5", "10" })
+	public int						columns;
+
+	@Param({ "8", "32" })
+	public int						cellLength;
+
+	private List<Object>			beans;
+
+	private String[]				properties;
+
+	private final IASCIITable		simple		= new SimpleASCIITableImpl();
+
+	@Setup
+	public void setUp() {
+		String[] pool = TableData.cellPool(cellLength, 42);
+
+		Random random = new Random(7);
+
+		beans = new ArrayList<>(rows);
+
+		for (int i = 0; i < rows; i++) {
+			beans.add(new Order(random, pool));
+		}
+
+		properties = Arrays.copyOf(PROPERTIES, columns);
+	}
+
+	@Benchmark
+	public String collectionGetTable() {
+		return simple.getTable(
+				new CollectionASCIITableAware(beans, properties));
+	}
+
+	@Benchmark
+	public String lazyCollectionGetTable() {
+		return simple.getTable(
+				new LazyCollectionASCIITableAware(beans, properties));
+	}
+}
@@ -0,0 +1,161 @@
+package com.bethecoder.ascii_table.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.impl.SimpleASCIITableImpl;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+
+/**
+ * Runs the benchmarks with the GC profiler always on, then prints how
+ * much each benchmark allocated per row of the table.
+ *
+ * Takes the same arguments as the standard JMH runner. Listing and help
+ * options are passed straight through to it.
+ *
+ * @author ben
+ *
+ */
+public final class BenchmarkMain {
+	// The GC profiler's normalized allocation, in bytes per operation
+	private static final String ALLOCATION_RESULT = "gc.alloc.rate.norm";
+
+	private BenchmarkMain() {
+		// Entry point only
+	}
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+
+		if (commandLine.shouldHelp() || commandLine.shouldList()
+				|| commandLine.shouldListWithParams()
+				|| commandLine.shouldListProfilers()
+				|| commandLine.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		OptionsBuilder options = new OptionsBuilder();
+
+		options.parent(commandLine);
+
+		if (!hasGCProfiler(commandLine)) {
+			options.addProfiler(GCProfiler.class);
+		}
+
+		Collection<RunResult> results = new Runner(options.build()).run();
+
+		System.out.println();
+		System.out.println("Allocation per row:");
+		System.out.print(summarize(results));
+	}
+
+	private static boolean hasGCProfiler(CommandLineOptions commandLine) {
+		for (ProfilerConfig profiler : commandLine.getProfilers()) {
+			String name = profiler.getKlass();
+
+			if (name.equals("gc") || name.equals(GCProfiler.class.getName())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/*
+	 * Tabulate the throughput and allocation of each run
+	 */
+	private static String summarize(Collection<RunResult> results) {
+		ASCIITableHeader[] headers = {
+				new ASCIITableHeader("Benchmark", AlignmentValues.ALIGN_LEFT),
+				new ASCIITableHeader("Params", AlignmentValues.ALIGN_LEFT),
+				new ASCIITableHeader("Ops/s", AlignmentValues.ALIGN_RIGHT),
+				new ASCIITableHeader("B/op", AlignmentValues.ALIGN_RIGHT),
+				new ASCIITableHeader("B/row", AlignmentValues.ALIGN_RIGHT) };
+
+		List<String[]> rows = new ArrayList<>();
+
+		for (RunResult result : results) {
+			String benchmark = result.getParams().getBenchmark();
+
+			Result<?> allocation = result.getSecondaryResults()
+					.get(ALLOCATION_RESULT);
+
+			String bytesPerOp = "-";
+			String bytesPerRow = "-";
+
+			if (allocation != null) {
+				double bytes = allocation.getScore();
+
+				bytesPerOp = String.format(Locale.ROOT, "%.0f", bytes);
+
+				long rowCount = getRowCount(result);
+
+				if (rowCount > 0) {
+					bytesPerRow = String.format(Locale.ROOT, "%.1f",
+							bytes / rowCount);
+				}
+			}
+
+			rows.add(new String[] {
+					benchmark.substring(benchmark.lastIndexOf('.',
+							benchmark.lastIndexOf('.') - 1) + 1),
+					getParams(result),
+					String.format(Locale.ROOT, "%.3f",
+							result.getPrimaryResult().getScore()),
+					bytesPerOp, bytesPerRow });
+		}
+
+		if (rows.isEmpty()) {
+			return "";
+		}
+
+		return new SimpleASCIITableImpl().getTable(headers,
+				rows.toArray(new String[0][]));
+	}
+
+	private static String getParams(RunResult result) {
+		StringBuilder params = new StringBuilder();
+
+		for (String key : result.getParams().getParamsKeys()) {
+			if (params.length() > 0) {
+				params.append(' ');
+			}
+
+			params.append(key).append('=')
+					.append(result.getParams().getParam(key));
+		}
+
+		return params.toString();
+	}
+
+	/*
+	 * Work out how many rows a run's table had, from its parameters
+	 */
+	private static long getRowCount(RunResult result) {
+		String shape = result.getParams().getParam("shape");
+
+		if (shape != null) {
+			return TableData.parseShape(shape)[0];
+		}
+
+		String rows = result.getParams().getParam("rows");
+
+		if (rows != null) {
+			return Long.parseLong(rows);
+		}
+
+		return 0;
+	}
+}
@@ -0,0 +1,77 @@
+package com.bethecoder.ascii_table.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bethecoder.ascii_table.impl.JDBCASCIITableAware;
+import com.bethecoder.ascii_table.impl.JDBCASCIITableRowSource;
+import com.bethecoder.ascii_table.impl.SimpleASCIITableImpl;
+
+/**
+ * Renders tables read from an in-memory result set, both by reading the
+ * whole result set first and by streaming it a row at a time. Reading the
+ * result set is part of each benchmark, as it would be with a real query.
+ *
+ * @author ben
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class JDBCTableBenchmark {
+	@Param({ "10x1", "10x100", "1000x10", "10000x100", "100000x10",
+			"1000000x1" })
+	public String						shape;
+
+	@Param({ "8", "32" })
+	public int							cellLength;
+
+	private int							rows;
+
+	private int							columns;
+
+	private String[]					pool;
+
+	private final SimpleASCIITableImpl	simple	= new SimpleASCIITableImpl();
+
+	@Setup
+	public void setUp() {
+		int[] size = TableData.parseShape(shape);
+
+		rows = size[0];
+		columns = size[1];
+
+		pool = TableData.cellPool(cellLength, 42);
+	}
+
+	@Benchmark
+	public String awareGetTable() {
+		return simple.getTable(new JDBCASCIITableAware(
+				StubResultSet.create(rows, columns, pool)));
+	}
+
+	@Benchmark
+	public StringBuilder rowSourceRenderTo() throws IOException {
+		StringBuilder out = new StringBuilder();
+
+		simple.renderTo(out, new JDBCASCIITableRowSource(
+				StubResultSet.create(rows, columns, pool), 0));
+
+		return out;
+	}
+}
@@ -0,0 +1,85 @@
+package com.bethecoder.ascii_table.benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bethecoder.ascii_table.ASCIITableFactory;
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.impl.HTMLASCIITableImpl;
+import com.bethecoder.ascii_table.impl.SimpleASCIITableImpl;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+import com.bethecoder.ascii_table.spec.IASCIITable;
+
+/**
+ * Renders tables of strings with each of the renderers.
+ *
+ * The shape of the table is given as rows by columns, since every
+ * combination of up to a million rows and up to a hundred columns would
+ * take too long to run, and wouldn't all fit in a string.
+ *
+ * @author ben
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class StringTableBenchmark {
+	@Param({ "10x1", "10x100", "1000x10", "10000x100", "100000x10",
+			"1000000x1" })
+	public String				shape;
+
+	@Param({ "8", "32" })
+	public int					cellLength;
+
+	@Param({ "ALIGN_LEFT", "ALIGN_CENTER", "ALIGN_RIGHT" })
+	public AlignmentValues		alignment;
+
+	private ASCIITableHeader[]	headers;
+
+	private String[][]			data;
+
+	private final IASCIITable	simple		= new SimpleASCIITableImpl();
+
+	private final IASCIITable	html		= new HTMLASCIITableImpl();
+
+	private final IASCIITable	parallel	= ASCIITableFactory
+			.getParallel(ForkJoinPool.commonPool());
+
+	@Setup
+	public void setUp() {
+		int[] size = TableData.parseShape(shape);
+
+		headers = TableData.headers(size[1], alignment);
+		data = TableData.cells(size[0], size[1], cellLength);
+	}
+
+	@Benchmark
+	public String simpleGetTable() {
+		return simple.getTable(headers, data);
+	}
+
+	@Benchmark
+	public String htmlGetTable() {
+		return html.getTable(headers, data);
+	}
+
+	@Benchmark
+	public String parallelGetTable() {
+		return parallel.getTable(headers, data);
+	}
+}
@@ -0,0 +1,160 @@
+package com.bethecoder.ascii_table.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+
+/**
+ * An in-memory, forward-only result set, so the JDBC tables can be
+ * benchmarked without a database.
+ *
+ * Columns take turns being <code>BIGINT</code>, <code>VARCHAR</code> and
+ * <code>DOUBLE</code>. Every value is worked out from its row and column
+ * as it is read, and every sixteenth <code>DOUBLE</code> is null. Only the
+ * methods the tables call are supported.
+ *
+ * @author ben
+ *
+ */
+final class StubResultSet implements InvocationHandler {
+	// The types of the columns, repeated across the table
+	private static final int[]	COLUMN_TYPES	= { Types.BIGINT,
+			Types.VARCHAR, Types.DOUBLE };
+
+	private final int			rows;
+
+	private final int			columns;
+
+	// The strings text cells are drawn from
+	private final String[]		pool;
+
+	// The current row, counting from 1
+	private int					row;
+
+	// Whether the last value read was null
+	private boolean				wasNull;
+
+	private StubResultSet(int rows, int columns, String[] pool) {
+		this.rows = rows;
+		this.columns = columns;
+		this.pool = pool;
+	}
+
+	/**
+	 * Create a result set, positioned before its first row
+	 *
+	 * @param rows
+	 *            The number of rows
+	 * @param columns
+	 *            The number of columns
+	 * @param pool
+	 *            The strings to draw text cells from. Its size must be a
+	 *            power of two.
+	 * @return The result set
+	 */
+	static ResultSet create(int rows, int columns, String[] pool) {
+		return (ResultSet) Proxy.newProxyInstance(
+				StubResultSet.class.getClassLoader(),
+				new Class<?>[] { ResultSet.class },
+				new StubResultSet(rows, columns, pool));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) {
+		switch (method.getName()) {
+			case "next":
+				return ++row <= rows;
+			case "getLong":
+				wasNull = false;
+				return getLong(column(args));
+			case "getDouble":
+				return getDouble(column(args));
+			case "getString":
+				wasNull = false;
+				return getString(column(args));
+			case "getObject":
+				return getObject(column(args));
+			case "wasNull":
+				return wasNull;
+			case "getRow":
+				return row <= rows ? row : 0;
+			case "getType":
+				return ResultSet.TYPE_FORWARD_ONLY;
+			case "getMetaData":
+				return Proxy.newProxyInstance(
+						StubResultSet.class.getClassLoader(),
+						new Class<?>[] { ResultSetMetaData.class },
+						this::invokeMetaData);
+			case "setFetchSize":
+			case "close":
+				return null;
+			case "getStatement":
+				// There is no statement to cancel
+				return null;
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "StubResultSet[" + rows + "x" + columns + "]";
+			default:
+				throw new UnsupportedOperationException(method.getName());
+		}
+	}
+
+	private Object invokeMetaData(Object proxy, Method method,
+			Object[] args) {
+		switch (method.getName()) {
+			case "getColumnCount":
+				return columns;
+			case "getColumnLabel":
+			case "getColumnName":
+				return "column" + column(args);
+			case "getColumnType":
+				return COLUMN_TYPES[(column(args) - 1) % COLUMN_TYPES.length];
+			case "getColumnDisplaySize":
+			case "getPrecision":
+				return 20;
+			case "getScale":
+				return 2;
+			default:
+				throw new UnsupportedOperationException(method.getName());
+		}
+	}
+
+	private static int column(Object[] args) {
+		return (Integer) args[0];
+	}
+
+	private long getLong(int column) {
+		return row * 1000L + column;
+	}
+
+	private double getDouble(int column) {
+		wasNull = (row + column) % 16 == 0;
+
+		return wasNull ? 0 : row * 0.25 + column;
+	}
+
+	private String getString(int column) {
+		return pool[(row * 31 + column) & (pool.length - 1)];
+	}
+
+	private Object getObject(int column) {
+		switch (COLUMN_TYPES[(column - 1) % COLUMN_TYPES.length]) {
+			case Types.BIGINT:
+				wasNull = false;
+				return getLong(column);
+			case Types.DOUBLE:
+				double value = getDouble(column);
+
+				return wasNull ? null : (Object) value;
+			default:
+				wasNull = false;
+				return getString(column);
+		}
+	}
+}
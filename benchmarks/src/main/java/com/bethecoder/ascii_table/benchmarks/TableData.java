@@ -0,0 +1,125 @@
+package com.bethecoder.ascii_table.benchmarks;
+
+import java.util.Random;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+
+/**
+ * Generates the tables the benchmarks render.
+ *
+ * Cells are drawn from a fixed pool of random strings, so the largest
+ * tables don't need a separate string for every cell. Cell lengths vary
+ * between half the requested length and the full length, so that columns
+ * need padding.
+ *
+ * @author ben
+ *
+ */
+final class TableData {
+	// The number of distinct strings cells are drawn from
+	private static final int	POOL_SIZE	= 4096;
+
+	// The characters cells are made of
+	private static final String	ALPHABET	= "ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+			+ "abcdefghijklmnopqrstuvwxyz0123456789";
+
+	private TableData() {
+		// Utility class
+	}
+
+	/**
+	 * Parse a table shape, given as rows by columns
+	 *
+	 * @param shape
+	 *            The shape of the table, such as <code>1000x10</code>
+	 * @return The number of rows and the number of columns
+	 */
+	static int[] parseShape(String shape) {
+		int separator = shape.indexOf('x');
+
+		if (separator < 0) {
+			throw new IllegalArgumentException(
+					"Table shapes look like ROWSxCOLUMNS : " + shape);
+		}
+
+		return new int[] { Integer.parseInt(shape.substring(0, separator)),
+				Integer.parseInt(shape.substring(separator + 1)) };
+	}
+
+	/**
+	 * Create headers for a table
+	 *
+	 * @param columns
+	 *            The number of columns
+	 * @param alignment
+	 *            The alignment of the data in each column
+	 * @return The headers
+	 */
+	static ASCIITableHeader[] headers(int columns,
+			AlignmentValues alignment) {
+		ASCIITableHeader[] headers = new ASCIITableHeader[columns];
+
+		for (int i = 0; i < columns; i++) {
+			headers[i] = new ASCIITableHeader("Column " + i, alignment);
+		}
+
+		return headers;
+	}
+
+	/**
+	 * Create a pool of random strings to make cells from
+	 *
+	 * @param cellLength
+	 *            The longest a cell can be
+	 * @param seed
+	 *            The seed for the random strings
+	 * @return The pool of strings. Its size is a power of two.
+	 */
+	static String[] cellPool(int cellLength, long seed) {
+		Random random = new Random(seed);
+
+		String[] pool = new String[POOL_SIZE];
+
+		char[] chars = new char[cellLength];
+
+		for (int i = 0; i < pool.length; i++) {
+			int length = cellLength - random.nextInt(cellLength / 2 + 1);
+
+			for (int j = 0; j < length; j++) {
+				chars[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			}
+
+			pool[i] = new String(chars, 0, length);
+		}
+
+		return pool;
+	}
+
+	/**
+	 * Create the cells of a table
+	 *
+	 * @param rows
+	 *            The number of rows
+	 * @param columns
+	 *            The number of columns
+	 * @param cellLength
+	 *            The longest a cell can be
+	 * @return The cells, by row and then column
+	 */
+	static String[][] cells(int rows, int columns, int cellLength) {
+		String[] pool = cellPool(cellLength, 42);
+
+		Random random = new Random(7);
+
+		String[][] data = new String[rows][columns];
+
+		for (String[] row : data) {
+			for (int j = 0; j < columns; j++) {
+				row[j] = pool[random.nextInt(pool.length)];
+			}
+		}
+
+		return data;
+	}
+}
@@ -15,23 +15,73 @@
  */
 package com.bethecoder.ascii_table;
 
+import java.util.concurrent.ForkJoinPool;
+
+import com.bethecoder.ascii_table.impl.HTMLASCIITableImpl;
+import com.bethecoder.ascii_table.impl.ParallelASCIITableImpl;
 import com.bethecoder.ascii_table.impl.SimpleASCIITableImpl;
 import com.bethecoder.ascii_table.spec.IASCIITable;
 
 /**
  * Create ASCII table formatters of varying sorts
  * 
+ * Renderers keep no state between tables, so the renderers handed out
+ * here are shared, and can be used from any number of threads at once.
+ * 
  * @author K Venkata Sudhakar (kvenkatasudhakar@gmail.com)
  * @version 1.0
  *
  */
 public class ASCIITableFactory {
+	// The shared renderers
+	private static final IASCIITable	DEFAULT		= new SimpleASCIITableImpl();
+	private static final IASCIITable	HTML		= new HTMLASCIITableImpl();
+	private static final IASCIITable	PARALLEL	= new ParallelASCIITableImpl(
+			ForkJoinPool.commonPool());
+
 	/**
-	 * Get a default implementation of IASCIITable
+	 * Get a default implementation of IASCIITable. The same instance is
+	 * returned every time.
 	 * 
 	 * @return A default implementation of IASCIITable
 	 */
 	public static IASCIITable getDefault() {
-		return new SimpleASCIITableImpl();
+		return DEFAULT;
+	}
+
+	/**
+	 * Get an implementation of IASCIITable that renders HTML tables, with
+	 * each cell styled inline. The same instance is returned every time.
+	 * 
+	 * @return An implementation of IASCIITable that renders HTML
+	 */
+	public static IASCIITable getHTML() {
+		return HTML;
+	}
+
+	/**
+	 * Get an implementation of IASCIITable that renders large tables in
+	 * parallel, in the common fork/join pool. The output is the same as
+	 * that of the default implementation. The same instance is returned
+	 * every time.
+	 * 
+	 * @return An implementation of IASCIITable that renders in parallel
+	 */
+	public static IASCIITable getParallel() {
+		return PARALLEL;
+	}
+
+	/**
+	 * Get an implementation of IASCIITable that renders large tables in
+	 * parallel. The output is the same as that of the default
+	 * implementation. Each call returns a new renderer, but it can be
+	 * shared just like the others.
+	 * 
+	 * @param pool
+	 *            The pool to do the rendering in
+	 * @return An implementation of IASCIITable that renders in parallel
+	 */
+	public static IASCIITable getParallel(ForkJoinPool pool) {
+		return new ParallelASCIITableImpl(pool);
 	}
 }
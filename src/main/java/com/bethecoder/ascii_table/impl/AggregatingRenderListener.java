@@ -0,0 +1,176 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.bethecoder.ascii_table.spec.IRenderListener;
+import com.bethecoder.ascii_table.spec.RenderPhaseValues;
+
+/**
+ * A render listener that adds up the time and size of every table it is
+ * told about, so they can be read off by a metrics system.
+ *
+ * The totals are kept in {@link LongAdder}s, so one listener can be shared
+ * by renderers on many threads without them getting in each other's way.
+ * The totals read while tables are still being reported may include part
+ * of a table.
+ *
+ * @author ben
+ *
+ */
+public class AggregatingRenderListener implements IRenderListener {
+	private static final RenderPhaseValues[]	PHASES		= RenderPhaseValues
+			.values();
+
+	// The number of tables rendered
+	private final LongAdder						tables		= new LongAdder();
+
+	// The time spent in each phase
+	private final LongAdder[]					phaseNanos	= new LongAdder[PHASES.length];
+
+	private final LongAdder						rows		= new LongAdder();
+	private final LongAdder						cells		= new LongAdder();
+	private final LongAdder						chars		= new LongAdder();
+	private final LongAdder						formatCalls	= new LongAdder();
+
+	/**
+	 * Create a new listener, with all of its totals at zero
+	 */
+	public AggregatingRenderListener() {
+		for (int i = 0; i < phaseNanos.length; i++) {
+			phaseNanos[i] = new LongAdder();
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public void phaseFinished(RenderPhaseValues phase, long nanos) {
+		phaseNanos[phase.ordinal()].add(nanos);
+	}
+
+	@Override
+	public void tableFinished(long rows, long cells, long chars,
+			long formatCalls) {
+		tables.increment();
+
+		this.rows.add(rows);
+		this.cells.add(cells);
+		this.chars.add(chars);
+		this.formatCalls.add(formatCalls);
+	}
+
+	/**
+	 * Get the number of data cells in all the tables
+	 *
+	 * @return The total number of cells
+	 */
+	public long getCellCount() {
+		return cells.sum();
+	}
+
+	/**
+	 * Get the number of characters written out for all the tables
+	 *
+	 * @return The total number of characters
+	 */
+	public long getCharCount() {
+		return chars.sum();
+	}
+
+	/**
+	 * Get every total, by name, for exporting to a metrics system. Phase
+	 * times are named after the phase, such as <code>nanos.emit</code>.
+	 *
+	 * @return The totals, in a fixed order
+	 */
+	public Map<String, Long> getCounters() {
+		Map<String, Long> counters = new LinkedHashMap<>();
+
+		counters.put("tables", getTableCount());
+		counters.put("rows", getRowCount());
+		counters.put("cells", getCellCount());
+		counters.put("chars", getCharCount());
+		counters.put("formatCalls", getFormatCallCount());
+
+		for (RenderPhaseValues phase : PHASES) {
+			counters.put("nanos." + getPhaseName(phase),
+					getPhaseNanos(phase));
+		}
+
+		return counters;
+	}
+
+	/**
+	 * Get the number of times sources were asked to format a cell
+	 *
+	 * @return The total number of format calls
+	 */
+	public long getFormatCallCount() {
+		return formatCalls.sum();
+	}
+
+	/**
+	 * Get the time spent in one phase of rendering, over all the tables
+	 *
+	 * @param phase
+	 *            The phase
+	 * @return The total time spent in the phase, in nanoseconds
+	 */
+	public long getPhaseNanos(RenderPhaseValues phase) {
+		return phaseNanos[phase.ordinal()].sum();
+	}
+
+	/**
+	 * Get the number of data rows in all the tables
+	 *
+	 * @return The total number of rows
+	 */
+	public long getRowCount() {
+		return rows.sum();
+	}
+
+	/**
+	 * Get the number of tables rendered
+	 *
+	 * @return The number of tables
+	 */
+	public long getTableCount() {
+		return tables.sum();
+	}
+
+	/**
+	 * Set all of the totals back to zero. Tables being reported at the
+	 * same time may be partly counted before and partly after.
+	 */
+	public void reset() {
+		tables.reset();
+
+		for (LongAdder nanos : phaseNanos) {
+			nanos.reset();
+		}
+
+		rows.reset();
+		cells.reset();
+		chars.reset();
+		formatCalls.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "AggregatingRenderListener" + getCounters();
+	}
+
+	/*
+	 * The name of a phase without its prefix, such as "emit"
+	 */
+	private static String getPhaseName(RenderPhaseValues phase) {
+		return phase.name().substring(phase.name().indexOf('_') + 1)
+				.toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,153 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A global cache of compiled accessors for javabean properties.
+ *
+ * Accessors are looked up and compiled once per class and property, so
+ * building a second table from the same type of bean does no reflection.
+ *
+ * @author ben
+ *
+ */
+final class BeanAccessors {
+	// The accessors we've compiled for each class, by property name
+	private static final ClassValue<ConcurrentMap<String, Function<Object, Object>>> ACCESSORS = new ClassValue<ConcurrentMap<String, Function<Object, Object>>>() {
+		@Override
+		protected ConcurrentMap<String, Function<Object, Object>> computeValue(
+				Class<?> beanClass) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private BeanAccessors() {
+		// Utility class
+	}
+
+	/**
+	 * Get the accessor for a property of a class of beans
+	 *
+	 * @param beanClass
+	 *            The class of the beans
+	 * @param beanProperty
+	 *            The property to access
+	 * @return A function that reads the property from a bean
+	 */
+	static Function<Object, Object> getAccessor(Class<?> beanClass,
+			String beanProperty) {
+		return ACCESSORS.get(beanClass).computeIfAbsent(beanProperty,
+				property -> createAccessor(beanClass, property));
+	}
+
+	private static String capitalize(String property) {
+		if (property.length() == 0) {
+			return property;
+		}
+
+		return property.substring(0, 1).toUpperCase()
+				+ property.substring(1).toLowerCase();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> createAccessor(
+			Class<?> beanClass, String beanProperty) {
+		// Attempt to handle properties that follow java bean naming
+		// conventions
+		Method accessorMethod = getMethod(beanClass,
+				"get" + capitalize(beanProperty));
+
+		if (accessorMethod == null) {
+			// Attempt to handle boolean properties
+			accessorMethod = getMethod(beanClass,
+					"is" + capitalize(beanProperty));
+		}
+
+		if (accessorMethod == null) {
+			throw new IllegalStateException(
+					"Could not find accessor for property " + beanProperty
+							+ " of " + beanClass.getSimpleName());
+		}
+
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		MethodHandle accessorHandle;
+
+		try {
+			accessorHandle = lookup.unreflect(accessorMethod);
+		} catch (IllegalAccessException iaex) {
+			throw new IllegalStateException(iaex);
+		}
+
+		/*
+		 * The Function is spun up in our class loader, so it links fine
+		 * but can't load the bean's classes if they come from a loader
+		 * ours can't see, such as a child of it. Those beans get the
+		 * method handle instead.
+		 */
+		if (isVisible(accessorMethod.getDeclaringClass())
+				&& isVisible(accessorMethod.getReturnType())) {
+			try {
+				/*
+				 * Spin up a Function that calls the getter directly, so
+				 * the JIT can inline it like any other call.
+				 */
+				CallSite site = LambdaMetafactory.metafactory(lookup,
+						"apply", MethodType.methodType(Function.class),
+						MethodType.methodType(Object.class, Object.class),
+						accessorHandle, accessorHandle.type().wrap());
+
+				return (Function<Object, Object>) site.getTarget().invoke();
+			} catch (@SuppressWarnings("unused") Throwable thr) {
+				// Fall back to invoking the method handle
+			}
+		}
+
+		MethodHandle genericHandle = accessorHandle
+				.asType(MethodType.methodType(Object.class, Object.class));
+
+		return bean -> {
+			try {
+				return genericHandle.invokeExact(bean);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable thr) {
+				throw new IllegalStateException(thr);
+			}
+		};
+	}
+
+	/*
+	 * Check if a class resolves to the very same class from our class
+	 * loader
+	 */
+	private static boolean isVisible(Class<?> type) {
+		if (type.isPrimitive()) {
+			return true;
+		}
+
+		try {
+			return Class.forName(type.getName(), false,
+					BeanAccessors.class.getClassLoader()) == type;
+		} catch (@SuppressWarnings("unused") ClassNotFoundException cnfex) {
+			return false;
+		}
+	}
+
+	private static Method getMethod(Class<?> beanClass, String methodName) {
+		try {
+			return beanClass.getMethod(methodName, new Class<?>[0]);
+		} catch (@SuppressWarnings("unused") NoSuchMethodException nsmex) {
+			// Punt that we don't have a method by that name
+			return null;
+		}
+	}
+}
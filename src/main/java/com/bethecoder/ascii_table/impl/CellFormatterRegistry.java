@@ -0,0 +1,293 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.NumberFormat;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.bethecoder.ascii_table.spec.ICellFormatter;
+
+/**
+ * A set of cell formatters, picked by the runtime type of the value being
+ * formatted.
+ *
+ * The default formatters group the digits of numbers, and display
+ * everything else as-is. Strings are never parsed as numbers.
+ *
+ * Lookups are cached per class, and the default formatters keep their
+ * {@link NumberFormat}s thread-confined, so a registry can be shared
+ * between threads.
+ *
+ * @author ben
+ *
+ */
+public class CellFormatterRegistry {
+	/*
+	 * NumberFormat isn't thread-safe, so give each thread its own
+	 */
+	private static final ThreadLocal<NumberFormat>			NUMBER_FORMAT	= ThreadLocal
+			.withInitial(NumberFormat::getInstance);
+
+	/*
+	 * The default formatters for primitive numbers, so we can tell when
+	 * they're safe to skip boxing for
+	 */
+	private static final ICellFormatter<Object>				WHOLE_FORMATTER	= value -> formatWhole(
+			(Number) value);
+	private static final ICellFormatter<Object>				REAL_FORMATTER	= value -> formatReal(
+			((Number) value).doubleValue());
+
+	private static final CellFormatterRegistry				DEFAULT			= new CellFormatterRegistry(
+			true);
+
+	// The formatters that have been registered, by the type they format
+	private final Map<Class<?>, ICellFormatter<Object>>	registered		= new ConcurrentHashMap<>();
+
+	// The formatter to use for each type we've seen. Registering replaces
+	// the whole map, so a lookup that raced with it can only cache into
+	// the map that was thrown away.
+	private volatile Map<Class<?>, ICellFormatter<Object>>	resolved	= new ConcurrentHashMap<>();
+
+	// Whether formatters can be registered
+	private final boolean									isFrozen;
+
+	/**
+	 * Create a new registry, containing the default formatters
+	 */
+	public CellFormatterRegistry() {
+		this(false);
+	}
+
+	private CellFormatterRegistry(boolean isFrozen) {
+		registerDefaults();
+
+		this.isFrozen = isFrozen;
+	}
+
+	/**
+	 * Get the shared registry of default formatters. It can't have any
+	 * more formatters registered in it.
+	 *
+	 * @return The shared registry of default formatters
+	 */
+	public static CellFormatterRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/*
+	 * Format anything else the way we always have: as a number if it looks
+	 * like one, and as-is otherwise.
+	 */
+	private static String formatUnknown(Object value) {
+		String text = value.toString();
+
+		try {
+			return NUMBER_FORMAT.get().format(new BigDecimal(text));
+		} catch (@SuppressWarnings("unused") NumberFormatException nfex) {
+			return text;
+		}
+	}
+
+	/*
+	 * Floating point numbers go through their shortest decimal form, so
+	 * they round the same way as the text that's displayed for them
+	 * elsewhere.
+	 */
+	private static String formatReal(double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return Double.toString(value);
+		}
+
+		return NUMBER_FORMAT.get().format(BigDecimal.valueOf(value));
+	}
+
+	private static String formatWhole(Number value) {
+		return NUMBER_FORMAT.get().format(value.longValue());
+	}
+
+	/**
+	 * Format a whole number, without boxing it unless a custom formatter
+	 * has been registered for integers.
+	 *
+	 * @param value
+	 *            The value to format
+	 * @return The formatted value
+	 */
+	public String format(int value) {
+		if (registered.get(Integer.class) == WHOLE_FORMATTER) {
+			return NUMBER_FORMAT.get().format(value);
+		}
+
+		return format(Integer.valueOf(value));
+	}
+
+	/**
+	 * Format a whole number, without boxing it unless a custom formatter
+	 * has been registered for longs.
+	 *
+	 * @param value
+	 *            The value to format
+	 * @return The formatted value
+	 */
+	public String format(long value) {
+		if (registered.get(Long.class) == WHOLE_FORMATTER) {
+			return NUMBER_FORMAT.get().format(value);
+		}
+
+		return format(Long.valueOf(value));
+	}
+
+	/**
+	 * Format a floating point number, without boxing it unless a custom
+	 * formatter has been registered for doubles.
+	 *
+	 * @param value
+	 *            The value to format
+	 * @return The formatted value
+	 */
+	public String format(double value) {
+		if (registered.get(Double.class) == REAL_FORMATTER) {
+			return formatReal(value);
+		}
+
+		return format(Double.valueOf(value));
+	}
+
+	/**
+	 * Format a cell value using the formatter registered for its type, or
+	 * the closest supertype that has one.
+	 *
+	 * @param value
+	 *            The value to format
+	 * @return The formatted value, or null if the value is null
+	 */
+	public String format(Object value) {
+		if (value == null) {
+			return null;
+		}
+
+		Class<?> valueClass = value.getClass();
+
+		// Read the cache once, so what's resolved goes back into the same
+		// map it was missing from
+		Map<Class<?>, ICellFormatter<Object>> cache = resolved;
+
+		ICellFormatter<Object> formatter = cache.get(valueClass);
+
+		if (formatter == null) {
+			formatter = resolve(valueClass);
+
+			cache.put(valueClass, formatter);
+		}
+
+		return formatter.format(value);
+	}
+
+	/**
+	 * Register a formatter for a type of value. It will also be used for
+	 * subtypes of the value that don't have their own formatter.
+	 *
+	 * @param <ValueType>
+	 *            The type of value to format
+	 *
+	 * @param valueClass
+	 *            The type of value to format
+	 * @param formatter
+	 *            The formatter for that type of value
+	 * @return This registry
+	 */
+	@SuppressWarnings("unchecked")
+	public <ValueType> CellFormatterRegistry register(
+			Class<ValueType> valueClass,
+			ICellFormatter<? super ValueType> formatter) {
+		if (isFrozen) {
+			throw new UnsupportedOperationException(
+					"Can't register formatters in the default registry");
+		}
+
+		registered.put(valueClass, (ICellFormatter<Object>) formatter);
+
+		// Anything we've resolved might now have a closer formatter. The
+		// formatter is registered before the new cache is published, so
+		// anything that sees the new cache also sees the formatter.
+		resolved = new ConcurrentHashMap<>();
+
+		return this;
+	}
+
+	private void registerDefaults() {
+		registered.put(String.class, value -> (String) value);
+
+		registered.put(Byte.class, WHOLE_FORMATTER);
+		registered.put(Short.class, WHOLE_FORMATTER);
+		registered.put(Integer.class, WHOLE_FORMATTER);
+		registered.put(Long.class, WHOLE_FORMATTER);
+
+		registered.put(Float.class, value -> {
+			float number = (Float) value;
+
+			if (Float.isNaN(number) || Float.isInfinite(number)) {
+				return value.toString();
+			}
+
+			return NUMBER_FORMAT.get()
+					.format(new BigDecimal(Float.toString(number)));
+		});
+		registered.put(Double.class, REAL_FORMATTER);
+
+		registered.put(BigDecimal.class,
+				value -> NUMBER_FORMAT.get().format(value));
+		registered.put(BigInteger.class,
+				value -> NUMBER_FORMAT.get().format(value));
+
+		ICellFormatter<Object> textFormatter = Object::toString;
+
+		registered.put(Boolean.class, textFormatter);
+		registered.put(Character.class, textFormatter);
+		registered.put(Enum.class, textFormatter);
+		registered.put(Date.class, textFormatter);
+		registered.put(TemporalAccessor.class, textFormatter);
+
+		registered.put(Object.class,
+				CellFormatterRegistry::formatUnknown);
+	}
+
+	private ICellFormatter<Object> resolve(Class<?> valueClass) {
+		// Classes win over interfaces, and closer types over further ones
+		for (Class<?> type = valueClass; type != null; type = type
+				.getSuperclass()) {
+			ICellFormatter<Object> formatter = registered.get(type);
+
+			if (formatter != null && type != Object.class) {
+				return formatter;
+			}
+
+			formatter = resolveInterfaces(type);
+
+			if (formatter != null) {
+				return formatter;
+			}
+		}
+
+		return registered.get(Object.class);
+	}
+
+	private ICellFormatter<Object> resolveInterfaces(Class<?> type) {
+		for (Class<?> iface : type.getInterfaces()) {
+			ICellFormatter<Object> formatter = registered.get(iface);
+
+			if (formatter == null) {
+				formatter = resolveInterfaces(iface);
+			}
+
+			if (formatter != null) {
+				return formatter;
+			}
+		}
+
+		return null;
+	}
+}
@@ -15,14 +15,10 @@
  */
 package com.bethecoder.ascii_table.impl;
 
-import java.lang.reflect.Method;
-import java.math.BigDecimal;
-import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Function;
 
 import com.bethecoder.ascii_table.ASCIITableHeader;
 import com.bethecoder.ascii_table.spec.IASCIITableAware;
@@ -41,6 +37,9 @@ public class CollectionASCIITableAware
 	private List<ASCIITableHeader>	headers	= null;
 	// The data in the table
 	private List<List<Object>>		data	= null;
+	// The formatters for cell values
+	private CellFormatterRegistry	formatters	= CellFormatterRegistry
+			.getDefault();
 
 	/**
 	 * Create a new table of objects from a collection
@@ -54,6 +53,14 @@ public class CollectionASCIITableAware
 	 */
 	public CollectionASCIITableAware(List<Object> beanList,
 			List<String> beanProperties, List<String> propertyHeaders) {
+		TableSourceLoadEvent event = null;
+
+		if (FlightRecorderSupport.IS_AVAILABLE) {
+			event = new TableSourceLoadEvent();
+
+			event.begin();
+		}
+
 		if (beanList != null && !beanList.isEmpty()
 				&& beanProperties != null && !beanProperties.isEmpty()) {
 			// Fill out table headers if they've been provided
@@ -78,19 +85,37 @@ public class CollectionASCIITableAware
 
 			Class<?> dataClazz = beanList.get(0).getClass();
 
-			Map<String, Method> propertyMethodMap = new HashMap<>();
+			// Resolve each accessor once, up front
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			Function<Object, Object>[] accessors = new Function[beanProperties
+					.size()];
 
-			for (int i = 0; i < beanList.size(); i++) {
-				rowData = new ArrayList<>();
+			for (int j = 0; j < accessors.length; j++) {
+				accessors[j] = BeanAccessors.getAccessor(dataClazz,
+						beanProperties.get(j));
+			}
+
+			for (Object bean : beanList) {
+				rowData = new ArrayList<>(accessors.length);
 
-				for (int j = 0; j < beanProperties.size(); j++) {
-					rowData.add(getProperty(propertyMethodMap, dataClazz,
-							beanList.get(i), beanProperties.get(j)));
+				for (int j = 0; j < accessors.length; j++) {
+					rowData.add(getProperty(accessors[j], bean));
 				}
 
 				data.add(rowData);
 			}
 		}
+
+		if (event != null && event.shouldCommit()) {
+			event.source = getClass();
+
+			if (data != null) {
+				event.rows = data.size();
+				event.columns = headers.size();
+			}
+
+			event.commit();
+		}
 	}
 
 	/**
@@ -107,26 +132,10 @@ public class CollectionASCIITableAware
 				Arrays.asList(beanProperties));
 	}
 
-	private static String capitalize(String property) {
-		if (property.length() == 0) {
-			return property;
-		}
-
-		return property.substring(0, 1).toUpperCase()
-				+ property.substring(1).toLowerCase();
-	}
-
 	@Override
 	public String formatData(ASCIITableHeader rowHeader, int row, int col,
 			Object cellData) {
-		// Format only numbers
-		try {
-			BigDecimal decimal = new BigDecimal(cellData.toString());
-
-			return NumberFormat.getInstance().format(decimal);
-		} catch (@SuppressWarnings("unused") NumberFormatException nfex) {
-			return cellData.toString();
-		}
+		return formatters.format(cellData);
 	}
 
 	@Override
@@ -139,51 +148,20 @@ public class CollectionASCIITableAware
 		return headers;
 	}
 
-	private static Method getMethod(Class<?> beanClass,
-			String methodName) {
-		try {
-			return beanClass.getMethod(methodName, new Class<?>[0]);
-		} catch (@SuppressWarnings("unused") NoSuchMethodException nsmex) {
-			// Punt that we don't have a method by that name
-			return null;
-		}
+	/**
+	 * Set the formatters used to display cell values
+	 * 
+	 * @param formatters
+	 *            The formatters used to display cell values
+	 */
+	public void setFormatters(CellFormatterRegistry formatters) {
+		this.formatters = formatters;
 	}
 
-	private static Object getProperty(Map<String, Method> accessorMap,
-			Class<?> beanClass, Object bean, String beanProperty) {
+	private static Object getProperty(Function<Object, Object> accessor,
+			Object bean) {
 		try {
-			Method accessorMethod = null;
-
-			if (accessorMap.containsKey(beanProperty)) {
-				// Retrieve properties we already know about
-				accessorMethod = accessorMap.get(beanProperty);
-			} else {
-				// Attempt to handle properties that follow java bean
-				// naming conventions
-				String methodName = "get" + capitalize(beanProperty);
-				accessorMethod = getMethod(beanClass, methodName);
-
-				if (accessorMethod == null) {
-					// Attempt to handle boolean properties
-					methodName = "is" + capitalize(beanProperty);
-					accessorMethod = getMethod(beanClass, methodName);
-				}
-
-				if (accessorMethod != null) {
-					// Add any methods we found so we don't have to resolve
-					// them again
-					accessorMap.put(beanProperty, accessorMethod);
-				}
-			}
-
-			if (accessorMethod == null) {
-				throw new IllegalStateException(
-						"Could not find accessor for property "
-								+ beanProperty + " of "
-								+ beanClass.getSimpleName());
-			}
-
-			return accessorMethod.invoke(bean, new Object[0]);
+			return accessor.apply(bean);
 		} catch (Exception ex) {
 			throw new IllegalStateException(ex);
 		}
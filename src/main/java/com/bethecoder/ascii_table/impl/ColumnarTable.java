@@ -0,0 +1,92 @@
+package com.bethecoder.ascii_table.impl;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * A table stored a column at a time, with each column kept in whatever
+ * form suits its values. Columns of numbers are kept in primitive
+ * arrays, and are never turned into objects or strings on the way to
+ * being rendered.
+ *
+ * @author ben
+ *
+ */
+public class ColumnarTable {
+	// The columns in the table
+	private final TableColumn[]	columns;
+
+	// The number of rows in the table
+	private final int			rowCount;
+
+	/**
+	 * Create a new table from a set of columns
+	 *
+	 * @param columns
+	 *            The columns in the table. They all have to have the same
+	 *            number of cells.
+	 */
+	public ColumnarTable(TableColumn... columns) {
+		if (columns.length == 0) {
+			throw new IllegalArgumentException(
+					"A table needs at least one column");
+		}
+
+		this.columns = columns.clone();
+
+		rowCount = columns[0].size();
+
+		for (TableColumn column : columns) {
+			if (column.size() != rowCount) {
+				throw new IllegalArgumentException(
+						"Columns have different numbers of rows: "
+								+ column.size() + " and " + rowCount);
+			}
+		}
+	}
+
+	/**
+	 * Get a column of the table
+	 *
+	 * @param column
+	 *            The index of the column
+	 * @return The column at that index
+	 */
+	public TableColumn getColumn(int column) {
+		return columns[column];
+	}
+
+	/**
+	 * Get the number of columns in the table
+	 *
+	 * @return The number of columns in the table
+	 */
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	/**
+	 * Work out the layout needed to fit this table
+	 *
+	 * @return A layout wide enough for every cell and header in the table
+	 */
+	public TableLayout getLayout() {
+		ASCIITableHeader[] headers = new ASCIITableHeader[columns.length];
+		int[] widths = new int[columns.length];
+
+		for (int i = 0; i < columns.length; i++) {
+			headers[i] = columns[i].getHeader();
+			widths[i] = columns[i].getWidth();
+		}
+
+		return new TableLayout(headers, widths);
+	}
+
+	/**
+	 * Get the number of rows in the table
+	 *
+	 * @return The number of rows in the table
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+}
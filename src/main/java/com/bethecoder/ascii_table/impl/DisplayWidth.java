@@ -0,0 +1,274 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.util.Arrays;
+
+/**
+ * Works out how many terminal columns text takes up.
+ *
+ * East Asian wide and fullwidth characters, and emoji, take up two
+ * columns. Combining marks and other zero-width characters take up none.
+ * Everything else takes up one. Surrogate pairs are measured as the single
+ * character they encode.
+ *
+ * Text is measured in a single pass, which only has to check each
+ * character while it is ASCII. At the first character that isn't, the
+ * width of the whole string is looked up in a cache, since the same
+ * names and labels tend to turn up over and over again in a table, and
+ * only measured character by character if it isn't there.
+ *
+ * @author ben
+ *
+ */
+final class DisplayWidth {
+	/*
+	 * The ranges of characters that take up two columns, as pairs of
+	 * first and last characters, in order.
+	 */
+	private static final int[]		WIDE_RANGES	= {
+			0x1100, 0x115F, // Hangul Jamo initial consonants
+			0x231A, 0x231B, 0x2329, 0x232A, 0x23E9, 0x23EC, 0x23F0, 0x23F0,
+			0x23F3, 0x23F3, 0x25FD, 0x25FE, 0x2614, 0x2615, 0x2648, 0x2653,
+			0x267F, 0x267F, 0x2693, 0x2693, 0x26A1, 0x26A1, 0x26AA, 0x26AB,
+			0x26BD, 0x26BE, 0x26C4, 0x26C5, 0x26CE, 0x26CE, 0x26D4, 0x26D4,
+			0x26EA, 0x26EA, 0x26F2, 0x26F3, 0x26F5, 0x26F5, 0x26FA, 0x26FA,
+			0x26FD, 0x26FD, 0x2705, 0x2705, 0x270A, 0x270B, 0x2728, 0x2728,
+			0x274C, 0x274C, 0x274E, 0x274E, 0x2753, 0x2755, 0x2757, 0x2757,
+			0x2795, 0x2797, 0x27B0, 0x27B0, 0x27BF, 0x27BF, 0x2B1B, 0x2B1C,
+			0x2B50, 0x2B50, 0x2B55, 0x2B55, // Emoji presentation symbols
+			0x2E80, 0x303E, // CJK radicals, punctuation
+			0x3041, 0x33FF, // Kana, Bopomofo, CJK compatibility
+			0x3400, 0x4DBF, // CJK unified ideographs extension A
+			0x4E00, 0x9FFF, // CJK unified ideographs
+			0xA000, 0xA4CF, // Yi
+			0xA960, 0xA97F, // Hangul Jamo extended A
+			0xAC00, 0xD7A3, // Hangul syllables
+			0xF900, 0xFAFF, // CJK compatibility ideographs
+			0xFE10, 0xFE19, // Vertical forms
+			0xFE30, 0xFE6F, // CJK compatibility and small forms
+			0xFF00, 0xFF60, // Fullwidth forms
+			0xFFE0, 0xFFE6, // Fullwidth signs
+			0x16FE0, 0x16FE4, 0x17000, 0x18CFF, // Tangut
+			0x1B000, 0x1B2FF, // Kana supplement, Nushu
+			0x1F004, 0x1F004, 0x1F0CF, 0x1F0CF, 0x1F18E, 0x1F18E,
+			0x1F191, 0x1F19A, 0x1F200, 0x1F251, // Enclosed ideographs
+			0x1F300, 0x1F64F, // Pictographs, emoticons
+			0x1F680, 0x1F6FF, // Transport and map symbols
+			0x1F7E0, 0x1F7EB, 0x1F90C, 0x1F9FF, // Supplemental pictographs
+			0x1FA70, 0x1FAFF, // Symbols and pictographs extended A
+			0x20000, 0x2FFFD, // CJK unified ideographs extensions B on
+			0x30000, 0x3FFFD, // CJK unified ideographs extension G on
+	};
+
+	/*
+	 * A cache of the widths of text that isn't pure ASCII. Each string can
+	 * only go in one slot, picked by its hash, and replaces whatever was
+	 * there. Entries are immutable, so threads can share the cache without
+	 * locking; at worst, they measure the same string twice.
+	 */
+	private static final int		CACHE_SIZE	= 1024;
+	private static final Entry[]	CACHE		= new Entry[CACHE_SIZE];
+
+	private static final class Entry {
+		public final String	text;
+		public final int	width;
+
+		public Entry(String text, int width) {
+			this.text = text;
+			this.width = width;
+		}
+	}
+
+	private DisplayWidth() {
+		// Utility class
+	}
+
+	/**
+	 * Get the number of columns a character takes up
+	 *
+	 * @param codePoint
+	 *            The character to measure
+	 * @return The number of columns the character takes up: 0, 1 or 2
+	 */
+	static int of(int codePoint) {
+		if (codePoint < 0x300) {
+			// Nothing below the combining diacriticals is wide or zero-width
+			return 1;
+		}
+
+		switch (Character.getType(codePoint)) {
+			case Character.NON_SPACING_MARK:
+			case Character.ENCLOSING_MARK:
+			case Character.FORMAT:
+				return 0;
+			default:
+				break;
+		}
+
+		if (codePoint >= 0x1160 && codePoint <= 0x11FF) {
+			// Hangul vowels and finals join the consonant before them
+			return 0;
+		}
+
+		if (codePoint < WIDE_RANGES[0]) {
+			return 1;
+		}
+
+		// Find the last range starting at or before the character
+		int index = Arrays.binarySearch(WIDE_RANGES, codePoint);
+
+		if (index >= 0) {
+			// It's on the edge of a range
+			return 2;
+		}
+
+		int insertion = -index - 1;
+
+		// An odd insertion point means it's between a first and a last
+		if (insertion % 2 == 1) {
+			return 2;
+		}
+
+		return 1;
+	}
+
+	/**
+	 * Get the number of columns some text takes up
+	 *
+	 * @param text
+	 *            The text to measure
+	 * @return The number of columns the text takes up
+	 */
+	static int of(String text) {
+		int length = text.length();
+
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(i) >= 0x80) {
+				return ofCached(text, i);
+			}
+		}
+
+		return length;
+	}
+
+	/**
+	 * Check whether some text is all ASCII, and so takes up one column per
+	 * character
+	 *
+	 * @param text
+	 *            The text to check
+	 * @return Whether every character of the text is ASCII
+	 */
+	static boolean isASCII(String text) {
+		return scanASCII(text, 0, text.length()) == text.length();
+	}
+
+	/**
+	 * Get the number of columns part of some text takes up
+	 *
+	 * @param text
+	 *            The text to measure
+	 * @param start
+	 *            The start of the part to measure
+	 * @param end
+	 *            The end of the part to measure
+	 * @return The number of columns the part takes up
+	 */
+	static int of(String text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (text.charAt(i) >= 0x80) {
+				return (i - start) + measureFrom(text, i, end);
+			}
+		}
+
+		return end - start;
+	}
+
+	/**
+	 * Find how much of some text, from a given point, fits in a number of
+	 * columns. Characters are never split in half, and zero-width marks
+	 * stay with the character before them.
+	 *
+	 * @param text
+	 *            The text to fit
+	 * @param start
+	 *            Where in the text to start
+	 * @param columns
+	 *            The number of columns to fit the text in
+	 * @return The index in the text where the part that fits ends
+	 */
+	static int fit(String text, int start, int columns) {
+		int length = text.length();
+
+		// The ASCII run at the start fits one character to a column
+		int asciiEnd = scanASCII(text, start,
+				(int) Math.min(length, (long) start + columns));
+
+		int index = asciiEnd;
+		int width = asciiEnd - start;
+
+		while (index < length) {
+			int codePoint = text.codePointAt(index);
+
+			int charWidth = of(codePoint);
+
+			if (width + charWidth > columns) {
+				break;
+			}
+
+			width += charWidth;
+			index += Character.charCount(codePoint);
+		}
+
+		return index;
+	}
+
+	/*
+	 * Get the width of text that isn't all ASCII from the cache, or
+	 * measure the rest of it from the first character that isn't ASCII
+	 */
+	private static int ofCached(String text, int firstWide) {
+		int slot = text.hashCode() & (CACHE_SIZE - 1);
+
+		Entry entry = CACHE[slot];
+
+		if (entry != null && entry.text.equals(text)) {
+			return entry.width;
+		}
+
+		int width = firstWide + measureFrom(text, firstWide, text.length());
+
+		CACHE[slot] = new Entry(text, width);
+
+		return width;
+	}
+
+	/*
+	 * Measure text one character at a time
+	 */
+	private static int measureFrom(String text, int start, int end) {
+		int width = 0;
+
+		for (int i = start; i < end;) {
+			int codePoint = text.codePointAt(i);
+
+			width += of(codePoint);
+
+			i += Character.charCount(codePoint);
+		}
+
+		return width;
+	}
+
+	/*
+	 * Find the end of the run of ASCII characters at the start of a range
+	 */
+	private static int scanASCII(String text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (text.charAt(i) >= 0x80) {
+				return i;
+			}
+		}
+
+		return end;
+	}
+}
@@ -0,0 +1,189 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * A column of doubles, written out with a fixed number of decimal places.
+ *
+ * Values are rounded to the number of decimal places the way
+ * {@link RoundingMode#HALF_UP} rounds the decimal that
+ * {@link Double#toString(double)} writes, so halves go away from zero,
+ * and 1.005 goes to 1.01. Values too big to round that precisely,
+ * infinities and NaN are written the way {@link Double#toString(double)}
+ * writes them.
+ *
+ * The values are not copied, so they shouldn't be changed while the
+ * column is being rendered.
+ *
+ * @author ben
+ *
+ */
+public class DoubleColumn extends TableColumn {
+	/*
+	 * The largest scaled value that can be written as digits; past here,
+	 * doubles can't hold every whole number anyways.
+	 */
+	private static final double	MAX_SCALED	= 1e15;
+
+	// The values in the column
+	private final double[]		values;
+
+	// The number of decimal places to write
+	private final int			decimalPlaces;
+
+	// Ten to the power of the number of decimal places
+	private final long			scale;
+
+	/**
+	 * Create a new column of doubles
+	 *
+	 * @param header
+	 *            The header of the column
+	 * @param decimalPlaces
+	 *            The number of decimal places to write, from 0 to 9
+	 * @param values
+	 *            The values in the column
+	 */
+	public DoubleColumn(ASCIITableHeader header, int decimalPlaces,
+			double... values) {
+		super(header);
+
+		if (decimalPlaces < 0 || decimalPlaces > 9) {
+			throw new IllegalArgumentException(
+					"Decimal places must be between 0 and 9, not "
+							+ decimalPlaces);
+		}
+
+		this.values = values;
+		this.decimalPlaces = decimalPlaces;
+
+		long power = 1;
+
+		for (int i = 0; i < decimalPlaces; i++) {
+			power *= 10;
+		}
+
+		scale = power;
+	}
+
+	/**
+	 * Create a new column of doubles
+	 *
+	 * @param header
+	 *            The name of the column
+	 * @param decimalPlaces
+	 *            The number of decimal places to write, from 0 to 9
+	 * @param values
+	 *            The values in the column
+	 */
+	public DoubleColumn(String header, int decimalPlaces,
+			double... values) {
+		this(new ASCIITableHeader(header), decimalPlaces, values);
+	}
+
+	@Override
+	public void appendTo(StringBuilder builder, int row) {
+		double value = values[row];
+
+		if (!isWritable(value)) {
+			builder.append(value);
+
+			return;
+		}
+
+		long scaled = round(value);
+
+		if (scaled < 0) {
+			builder.append('-');
+
+			scaled = -scaled;
+		}
+
+		builder.append(scaled / scale);
+
+		if (decimalPlaces > 0) {
+			builder.append('.');
+
+			long fraction = scaled % scale;
+
+			// Put back the leading zeros of the fraction
+			int zeros = decimalPlaces - LongColumn.countDigits(fraction);
+
+			for (int i = 0; i < zeros; i++) {
+				builder.append('0');
+			}
+
+			builder.append(fraction);
+		}
+	}
+
+	@Override
+	public int measure(int row) {
+		double value = values[row];
+
+		if (!isWritable(value)) {
+			return Double.toString(value).length();
+		}
+
+		long scaled = round(value);
+
+		int width = LongColumn.countDigits(Math.abs(scaled) / scale);
+
+		if (scaled < 0) {
+			width++;
+		}
+
+		if (decimalPlaces > 0) {
+			width += 1 + decimalPlaces;
+		}
+
+		return width;
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+
+	/*
+	 * Scale a value up by the number of decimal places, and round it to a
+	 * whole number. Scaling in binary is off by up to an ulp or so, which
+	 * only matters for values that land about halfway, like 1.005. Those
+	 * few are rounded in decimal instead.
+	 */
+	private long round(double value) {
+		double scaled = Math.abs(value * scale);
+		double whole = Math.floor(scaled);
+		double fraction = scaled - whole;
+
+		long rounded;
+
+		if (Math.abs(fraction - 0.5) > 4 * Math.ulp(scaled)) {
+			rounded = (long) whole;
+
+			if (fraction > 0.5) {
+				rounded++;
+			}
+		} else {
+			rounded = BigDecimal.valueOf(Math.abs(value))
+					.setScale(decimalPlaces, RoundingMode.HALF_UP)
+					.unscaledValue().longValue();
+		}
+
+		if (value < 0) {
+			return -rounded;
+		}
+
+		return rounded;
+	}
+
+	/*
+	 * Check if a value can be written as rounded digits
+	 */
+	private boolean isWritable(double value) {
+		return Math.abs(value * scale) < MAX_SCALED;
+	}
+}
@@ -0,0 +1,32 @@
+package com.bethecoder.ascii_table.impl;
+
+/**
+ * Checks, once, whether the flight recorder is there to record events.
+ *
+ * Runtimes built without the jdk.jfr module can't load the event classes
+ * at all, so callers check {@link #IS_AVAILABLE} before creating an
+ * event, and skip recording when it is false.
+ *
+ * @author ben
+ *
+ */
+final class FlightRecorderSupport {
+	/**
+	 * Whether the flight recorder's event classes can be loaded
+	 */
+	static final boolean IS_AVAILABLE = isAvailable();
+
+	private FlightRecorderSupport() {
+	}
+
+	private static boolean isAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false,
+					FlightRecorderSupport.class.getClassLoader());
+
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+}
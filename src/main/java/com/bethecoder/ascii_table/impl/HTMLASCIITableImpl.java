@@ -1,31 +1,131 @@
 package com.bethecoder.ascii_table.impl;
 
+import java.io.IOException;
 import java.util.List;
 
-import org.apache.commons.lang3.StringEscapeUtils;
-
 import com.bethecoder.ascii_table.ASCIITableHeader;
 import com.bethecoder.ascii_table.spec.AlignmentValues;
+import com.bethecoder.ascii_table.spec.HTMLStyleValues;
 import com.bethecoder.ascii_table.spec.IASCIITable;
 import com.bethecoder.ascii_table.spec.IASCIITableAware;
+import com.bethecoder.ascii_table.spec.IRenderListener;
+import com.bethecoder.ascii_table.spec.RenderPhaseValues;
 
 /**
  * This class renders a ASCII table as an HTML table
  * 
+ * Like the other renderers, it holds no state from one table to the next,
+ * so a single instance can be shared by any number of threads.
+ * 
  * @author ben
  *
  */
 public class HTMLASCIITableImpl implements IASCIITable {
+	// The prefix of the class given to tables styled with classes
+	private static final String		TABLE_CLASS_PREFIX	= "ascii-table-";
+
+	// How to style the cells of the table
+	private final HTMLStyleValues	style;
+
+	// The listener to report the cost of each table to
+	private final IRenderListener	listener;
+
+	// The pool to take buffers from, or null to allocate new ones
+	private final StringBuilderPool	bufferPool;
+
+	/**
+	 * Create a new HTML table renderer, that styles each cell inline
+	 */
+	public HTMLASCIITableImpl() {
+		this(HTMLStyleValues.STYLE_INLINE);
+	}
+
+	/**
+	 * Create a new HTML table renderer
+	 * 
+	 * @param style
+	 *            How to style the cells of the table.
+	 *            {@link HTMLStyleValues#STYLE_CLASSES} gives much smaller
+	 *            output for large tables.
+	 */
+	public HTMLASCIITableImpl(HTMLStyleValues style) {
+		this(style, IRenderListener.NO_OP);
+	}
+
+	/**
+	 * Create a new HTML table renderer that reports how long each table
+	 * takes to render
+	 * 
+	 * @param style
+	 *            How to style the cells of the table
+	 * @param listener
+	 *            The listener to report each table to, or null not to
+	 *            report them
+	 */
+	public HTMLASCIITableImpl(HTMLStyleValues style,
+			IRenderListener listener) {
+		this(style, listener, null);
+	}
+
+	/**
+	 * Create a new HTML table renderer that builds tables in buffers from
+	 * a pool
+	 * 
+	 * @param style
+	 *            How to style the cells of the table
+	 * @param listener
+	 *            The listener to report each table to, or null not to
+	 *            report them
+	 * @param bufferPool
+	 *            The pool to take buffers from, or null to allocate a new
+	 *            buffer for each table
+	 */
+	public HTMLASCIITableImpl(HTMLStyleValues style,
+			IRenderListener listener, StringBuilderPool bufferPool) {
+		this.style = style;
+
+		if (listener == null) {
+			this.listener = IRenderListener.NO_OP;
+		} else {
+			this.listener = listener;
+		}
+
+		this.bufferPool = bufferPool;
+	}
 
 	@Override
 	public String getTable(ASCIITableHeader[] headerObjs,
 			String[][] data) {
-		StringBuilder tableHTML = new StringBuilder("<table>");
+		StringBuilder tableHTML = StringBuilderPool.acquireFrom(bufferPool);
+
+		try {
+			renderTo(tableHTML, headerObjs, data);
+
+			return tableHTML.toString();
+		} catch (IOException ioex) {
+			throw SimpleASCIITableImpl.unexpectedIOException(ioex);
+		} finally {
+			StringBuilderPool.releaseTo(bufferPool, tableHTML);
+		}
+	}
+
+	@Override
+	public void renderTo(Appendable out, ASCIITableHeader[] headerObjs,
+			String[][] data) throws IOException {
+		RenderMetrics metrics = RenderMetrics.start(listener, getClass());
+
+		if (metrics != null) {
+			out = metrics.track(out);
+		}
 
 		AlignmentValues[] dataAlignments;
 
 		if (headerObjs.length > 0) {
-			dataAlignments = buildTableHeader(headerObjs, tableHTML);
+			dataAlignments = new AlignmentValues[headerObjs.length];
+
+			for (int i = 0; i < headerObjs.length; i++) {
+				dataAlignments[i] = headerObjs[i].getDataAlign();
+			}
 		} else {
 			dataAlignments = new AlignmentValues[data[0].length];
 
@@ -34,75 +134,197 @@ public class HTMLASCIITableImpl implements IASCIITable {
 			}
 		}
 
-		buildTableBody(data, tableHTML, dataAlignments);
+		startTable(out, headerObjs, dataAlignments);
+
+		if (headerObjs.length > 0) {
+			buildTableHeader(headerObjs, out);
+		}
+
+		buildTableBody(data, out,
+				getOpenTags("td", "text", "", dataAlignments));
 
-		tableHTML.append("</table>");
+		out.append("</table>");
 
-		return tableHTML.toString();
+		// There's nothing to measure, so it's all writing
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			metrics.count(data.length,
+					RenderMetrics.countCells(data, 0, data.length), 0);
+			metrics.setColumns(dataAlignments.length);
+			metrics.finish();
+		}
 	}
 
-	private static void buildTableBody(String[][] data,
-			StringBuilder tableHTML, AlignmentValues[] dataAlignments) {
-		tableHTML.append("<tbody>");
+	private static void buildTableBody(String[][] data, Appendable out,
+			String[] cellTags) throws IOException {
+		out.append("<tbody>");
 
 		for (int i = 0; i < data.length; i++) {
 			String[] row = data[i];
 
-			tableHTML.append("<tr>");
+			out.append("<tr>");
 
 			for (int j = 0; j < row.length; j++) {
-				String cell = row[j];
+				out.append(cellTags[j]);
+
+				HTMLEscaper.escapeTo(out, row[j]);
+
+				out.append("</td>");
+			}
 
-				tableHTML.append("<td text=\"text-align: ");
+			out.append("</tr>");
+		}
 
-				tableHTML.append(
-						convertAlignmentValueToCSS(dataAlignments[j]));
+		out.append("</tbody>");
+	}
+
+	/*
+	 * Format the cells of a row into the given array, returning how many
+	 * cells there are
+	 */
+	private static <ContainedType> int formatRow(
+			IASCIITableAware<ContainedType> asciiTableAware,
+			ASCIITableHeader[] headerObjs, int rowIndex,
+			List<ContainedType> row, String[] cells) {
+		if (asciiTableAware instanceof JDBCASCIITableAware
+				&& ((JDBCASCIITableAware) asciiTableAware)
+						.isFormattingColumns()) {
+			// JDBC columns can be formatted without boxing their values
+			((JDBCASCIITableAware) asciiTableAware).formatRow(rowIndex,
+					cells);
+
+			return row.size();
+		}
 
-				tableHTML.append(";\">");
+		int colCounter = 0;
 
-				tableHTML.append(StringEscapeUtils.escapeHtml4(cell));
+		for (ContainedType containedType : row) {
+			ASCIITableHeader header = null;
 
-				tableHTML.append("</td>");
+			if (colCounter < headerObjs.length) {
+				header = headerObjs[colCounter];
 			}
 
-			tableHTML.append("</tr>");
+			String dat = asciiTableAware.formatData(header, rowIndex,
+					colCounter, containedType);
+
+			if (dat == null) {
+				dat = String.valueOf(containedType);
+			}
+
+			cells[colCounter++] = dat;
 		}
 
-		tableHTML.append("</tbody>");
+		return colCounter;
 	}
 
-	private static AlignmentValues[] buildTableHeader(
-			ASCIITableHeader[] headers, StringBuilder tableHTML) {
-		AlignmentValues[] dataAlignments = new AlignmentValues[headers.length];
-		dataAlignments = new AlignmentValues[headers.length];
+	private void buildTableHeader(ASCIITableHeader[] headers,
+			Appendable out) throws IOException {
+		AlignmentValues[] headerAlignments = new AlignmentValues[headers.length];
 
-		tableHTML.append("<thead><tr>");
+		for (int i = 0; i < headers.length; i++) {
+			headerAlignments[i] = headers[i].getHeaderAlign();
+		}
+
+		String[] headerTags = getOpenTags("th", "style", " ",
+				headerAlignments);
+
+		out.append("<thead><tr>");
 
 		for (int i = 0; i < headers.length; i++) {
-			ASCIITableHeader header = headers[i];
+			out.append(headerTags[i]);
 
-			dataAlignments[i] = header.getDataAlign();
+			HTMLEscaper.escapeTo(out, headers[i].getHeaderName());
 
-			tableHTML.append("<th style=\"text-align: ");
+			out.append("</th>");
+		}
 
-			tableHTML.append(
-					convertAlignmentValueToCSS(header.getHeaderAlign()));
+		out.append("</tr></thead>");
+	}
 
-			tableHTML.append(";\" >");
+	/*
+	 * Work out the opening tag for the cells in each column, so it can be
+	 * reused for every row
+	 */
+	private String[] getOpenTags(String tagName, String attribute,
+			String padding, AlignmentValues[] alignments) {
+		String[] tags = new String[alignments.length];
+
+		for (int i = 0; i < alignments.length; i++) {
+			if (style == HTMLStyleValues.STYLE_CLASSES) {
+				tags[i] = "<" + tagName + ">";
+			} else {
+				tags[i] = "<" + tagName + " " + attribute
+						+ "=\"text-align: "
+						+ convertAlignmentValueToCSS(alignments[i]) + ";\""
+						+ padding + ">";
+			}
+		}
 
-			tableHTML.append(
-					StringEscapeUtils.escapeHtml4(header.getHeaderName()));
+		return tags;
+	}
 
-			tableHTML.append("</th>");
+	/*
+	 * Open the table. When styling with classes, this also writes out the
+	 * style block for the columns.
+	 */
+	private void startTable(Appendable out, ASCIITableHeader[] headers,
+			AlignmentValues[] dataAlignments) throws IOException {
+		if (style != HTMLStyleValues.STYLE_CLASSES) {
+			out.append("<table>");
+
+			return;
+		}
+
+		/*
+		 * The class name is made from the alignments it styles, so tables
+		 * on the same page that are aligned differently can't clash.
+		 */
+		StringBuilder tableClass = new StringBuilder(TABLE_CLASS_PREFIX);
+
+		for (AlignmentValues align : dataAlignments) {
+			tableClass.append(convertAlignmentValueToCSS(align).charAt(0));
+		}
+
+		if (headers.length > 0) {
+			tableClass.append('-');
+
+			for (ASCIITableHeader header : headers) {
+				tableClass.append(convertAlignmentValueToCSS(
+						header.getHeaderAlign()).charAt(0));
+			}
 		}
 
-		tableHTML.append("</tr></thead>");
+		out.append("<table class=\"").append(tableClass)
+				.append("\"><style>");
 
-		return dataAlignments;
+		for (int i = 0; i < headers.length; i++) {
+			appendColumnRule(out, tableClass, "th", i,
+					headers[i].getHeaderAlign());
+		}
+
+		for (int i = 0; i < dataAlignments.length; i++) {
+			appendColumnRule(out, tableClass, "td", i, dataAlignments[i]);
+		}
+
+		out.append("</style>");
+	}
+
+	private static void appendColumnRule(Appendable out,
+			CharSequence tableClass, String tagName, int column,
+			AlignmentValues align) throws IOException {
+		out.append('.').append(tableClass).append(' ').append(tagName)
+				.append(":nth-child(").append(Integer.toString(column + 1))
+				.append("){text-align:")
+				.append(convertAlignmentValueToCSS(align)).append('}');
 	}
 
 	private static String convertAlignmentValueToCSS(
 			AlignmentValues align) {
+		if (align == null) {
+			return convertAlignmentValueToCSS(DEFAULT_DATA_ALIGN);
+		}
+
 		switch (align) {
 			case ALIGN_CENTER:
 				return "center";
@@ -118,68 +340,204 @@ public class HTMLASCIITableImpl implements IASCIITable {
 	@Override
 	public <ContainedType> String getTable(
 			IASCIITableAware<ContainedType> asciiTableAware) {
-		StringBuilder tableHTML = new StringBuilder();
+		StringBuilder tableHTML = StringBuilderPool.acquireFrom(bufferPool);
 
-		tableHTML.append("<table>");
+		try {
+			renderTo(tableHTML, asciiTableAware);
+
+			return tableHTML.toString();
+		} catch (IOException ioex) {
+			throw SimpleASCIITableImpl.unexpectedIOException(ioex);
+		} finally {
+			StringBuilderPool.releaseTo(bufferPool, tableHTML);
+		}
+	}
+
+	@Override
+	public <ContainedType> void renderTo(Appendable out,
+			IASCIITableAware<ContainedType> asciiTableAware)
+			throws IOException {
+		RenderMetrics metrics = RenderMetrics.start(listener, getClass());
+
+		if (metrics != null) {
+			out = metrics.track(out);
+		}
 
 		List<ASCIITableHeader> headers = asciiTableAware.getHeaders();
+		List<List<ContainedType>> data = asciiTableAware.getData();
 
-		AlignmentValues[] dataAlignment;
+		ASCIITableHeader[] headerObjs = headers
+				.toArray(new ASCIITableHeader[0]);
 
-		if (headers.isEmpty()) {
-			dataAlignment = new AlignmentValues[asciiTableAware.getData()
-					.get(0).size()];
-		} else {
-			dataAlignment = buildTableHeader(
-					headers.toArray(new ASCIITableHeader[0]), tableHTML);
+		// A source with headers but no rows still gets an empty body
+		int firstRowSize = data.isEmpty() ? 0 : data.get(0).size();
+
+		AlignmentValues[] dataAlignment = new AlignmentValues[Math.max(
+				headerObjs.length, firstRowSize)];
+
+		for (int i = 0; i < dataAlignment.length; i++) {
+			if (i < headerObjs.length) {
+				dataAlignment[i] = headerObjs[i].getDataAlign();
+			} else {
+				dataAlignment[i] = DEFAULT_DATA_ALIGN;
+			}
 		}
 
-		tableHTML.append("<tbody>");
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EXTRACT);
+		}
 
-		int rowCounter = 0;
+		startTable(out, headerObjs, dataAlignment);
 
-		for (List<ContainedType> row : asciiTableAware.getData()) {
-			tableHTML.append("<tr>");
+		if (headerObjs.length > 0) {
+			buildTableHeader(headerObjs, out);
+		}
 
-			int colCounter = 0;
-			for (ContainedType containedType : row) {
-				tableHTML.append("<td style=\"text-align: ");
+		String[] cellTags = getOpenTags("td", "style", "", dataAlignment);
 
-				tableHTML.append(convertAlignmentValueToCSS(
-						dataAlignment[colCounter]));
+		out.append("<tbody>");
 
-				tableHTML.append(";\">");
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+		}
 
-				String dat = asciiTableAware.formatData(
-						headers.get(colCounter), rowCounter, colCounter,
-						containedType);
+		// Each row is formatted into here before it is written out
+		String[] rowCells = new String[cellTags.length];
 
-				if (dat == null) {
-					dat = String.valueOf(containedType);
-				}
+		int rowCounter = 0;
+
+		for (List<ContainedType> row : data) {
+			int cellCount = formatRow(asciiTableAware, headerObjs,
+					rowCounter, row, rowCells);
+
+			if (metrics != null) {
+				metrics.endPhase(RenderPhaseValues.PHASE_EXTRACT);
+				metrics.count(1, cellCount, cellCount);
+			}
 
-				tableHTML.append(StringEscapeUtils.escapeHtml4(dat));
+			out.append("<tr>");
 
-				colCounter++;
+			for (int colCounter = 0; colCounter < cellCount; colCounter++) {
+				out.append(cellTags[colCounter]);
 
-				tableHTML.append("</td>");
+				HTMLEscaper.escapeTo(out, rowCells[colCounter]);
+
+				out.append("</td>");
 			}
 
-			tableHTML.append("</tr>");
+			out.append("</tr>");
+
+			if (metrics != null) {
+				metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			}
 
 			rowCounter++;
 		}
 
-		tableHTML.append("</tbody>");
+		out.append("</tbody>");
+
+		out.append("</table>");
 
-		tableHTML.append("</table");
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			metrics.setColumns(dataAlignment.length);
+			metrics.finish();
+		}
+	}
 
-		return tableHTML.toString();
+	/**
+	 * Create the HTML table as a string from a columnar table.
+	 * 
+	 * @param table
+	 *            The table to render
+	 * @return The table in string form
+	 */
+	public String getTable(ColumnarTable table) {
+		StringBuilder tableHTML = StringBuilderPool.acquireFrom(bufferPool);
+
+		try {
+			renderTo(tableHTML, table);
+
+			return tableHTML.toString();
+		} catch (IOException ioex) {
+			throw SimpleASCIITableImpl.unexpectedIOException(ioex);
+		} finally {
+			StringBuilderPool.releaseTo(bufferPool, tableHTML);
+		}
 	}
 
-	@Override
-	public String getTable(String[] stringHeaders,
-			AlignmentValues headerAlign, String[][] data,
+	/**
+	 * Render a columnar table to the provided output as an HTML table.
+	 * 
+	 * @param out
+	 *            The place to write the table to
+	 * @param table
+	 *            The table to render
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public void renderTo(Appendable out, ColumnarTable table)
+			throws IOException {
+		RenderMetrics metrics = RenderMetrics.start(listener, getClass());
+
+		if (metrics != null) {
+			out = metrics.track(out);
+		}
+
+		int columnCount = table.getColumnCount();
+
+		ASCIITableHeader[] headerObjs = new ASCIITableHeader[columnCount];
+		AlignmentValues[] dataAlignments = new AlignmentValues[columnCount];
+
+		for (int i = 0; i < columnCount; i++) {
+			headerObjs[i] = table.getColumn(i).getHeader();
+			dataAlignments[i] = headerObjs[i].getDataAlign();
+		}
+
+		startTable(out, headerObjs, dataAlignments);
+
+		buildTableHeader(headerObjs, out);
+
+		String[] cellTags = getOpenTags("td", "text", "", dataAlignments);
+
+		out.append("<tbody>");
+
+		// Cells are written here first, so they can be escaped
+		StringBuilder cellBuilder = new StringBuilder();
+
+		for (int i = 0; i < table.getRowCount(); i++) {
+			out.append("<tr>");
+
+			for (int j = 0; j < columnCount; j++) {
+				out.append(cellTags[j]);
+
+				table.getColumn(j).appendTo(cellBuilder, i);
+
+				HTMLEscaper.escapeTo(out, cellBuilder);
+
+				cellBuilder.setLength(0);
+
+				out.append("</td>");
+			}
+
+			out.append("</tr>");
+		}
+
+		out.append("</tbody>");
+
+		out.append("</table>");
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			metrics.count(table.getRowCount(),
+					(long) table.getRowCount() * columnCount, 0);
+			metrics.setColumns(columnCount);
+			metrics.finish();
+		}
+	}
+
+	private static ASCIITableHeader[] getHeaderObjects(
+			String[] stringHeaders, AlignmentValues headerAlign,
 			AlignmentValues dataAlign) {
 		ASCIITableHeader[] headers = new ASCIITableHeader[stringHeaders.length];
 
@@ -190,7 +548,16 @@ public class HTMLASCIITableImpl implements IASCIITable {
 					headerAlign);
 		}
 
-		return getTable(headers, data);
+		return headers;
+	}
+
+	@Override
+	public String getTable(String[] stringHeaders,
+			AlignmentValues headerAlign, String[][] data,
+			AlignmentValues dataAlign) {
+		return getTable(
+				getHeaderObjects(stringHeaders, headerAlign, dataAlign),
+				data);
 	}
 
 	@Override
@@ -208,30 +575,42 @@ public class HTMLASCIITableImpl implements IASCIITable {
 	@Override
 	public void printTable(ASCIITableHeader[] headerObjs,
 			String[][] data) {
-		System.out.println(getTable(headerObjs, data));
+		try {
+			renderTo(System.out, headerObjs, data);
+		} catch (IOException ioex) {
+			throw SimpleASCIITableImpl.unexpectedIOException(ioex);
+		}
+
+		System.out.println();
 	}
 
 	@Override
 	public <ContainedType> void printTable(
 			IASCIITableAware<ContainedType> asciiTableAware) {
-		System.out.println(asciiTableAware);
+		try {
+			renderTo(System.out, asciiTableAware);
+		} catch (IOException ioex) {
+			throw SimpleASCIITableImpl.unexpectedIOException(ioex);
+		}
+
+		System.out.println();
 	}
 
 	@Override
 	public void printTable(String[] header, AlignmentValues headerAlign,
 			String[][] data, AlignmentValues dataAlign) {
-		System.out.println(getTable(header, headerAlign, data, dataAlign));
+		printTable(getHeaderObjects(header, headerAlign, dataAlign), data);
 	}
 
 	@Override
 	public void printTable(String[] header, String[][] data) {
-		System.out.println(getTable(header, data));
+		printTable(header, DEFAULT_HEADER_ALIGN, data, DEFAULT_DATA_ALIGN);
 	}
 
 	@Override
 	public void printTable(String[] header, String[][] data,
 			AlignmentValues dataAlign) {
-		System.out.println(getTable(header, data, dataAlign));
+		printTable(header, DEFAULT_HEADER_ALIGN, data, dataAlign);
 	}
 
 }
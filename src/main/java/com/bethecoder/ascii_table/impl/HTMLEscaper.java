@@ -0,0 +1,75 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.io.IOException;
+
+/**
+ * Escapes text for use in HTML element content and attribute values.
+ *
+ * Only the characters that are special in HTML are escaped. Text that
+ * contains none of them is written out as-is, without being copied.
+ *
+ * @author ben
+ *
+ */
+final class HTMLEscaper {
+	// The escape for each ASCII character, or null if it needs none
+	private static final String[] ESCAPES = new String[128];
+
+	static {
+		ESCAPES['<'] = "&lt;";
+		ESCAPES['>'] = "&gt;";
+		ESCAPES['&'] = "&amp;";
+		ESCAPES['"'] = "&quot;";
+		ESCAPES['\''] = "&#39;";
+	}
+
+	private HTMLEscaper() {
+		// Utility class
+	}
+
+	/**
+	 * Write text to an output, escaping any characters that are special in
+	 * HTML
+	 *
+	 * @param out
+	 *            The place to write the text to
+	 * @param text
+	 *            The text to write. Null is written as "null", the way
+	 *            the plain renderer writes null cells.
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	static void escapeTo(Appendable out, CharSequence text) throws IOException {
+		if (text == null) {
+			out.append("null");
+
+			return;
+		}
+
+		int length = text.length();
+
+		// The start of the run of text that doesn't need escaping
+		int start = 0;
+
+		for (int i = 0; i < length; i++) {
+			char ch = text.charAt(i);
+
+			if (ch < ESCAPES.length && ESCAPES[ch] != null) {
+				if (i > start) {
+					out.append(text, start, i);
+				}
+
+				out.append(ESCAPES[ch]);
+
+				start = i + 1;
+			}
+		}
+
+		if (start == 0) {
+			// Nothing needed escaping, so pass the text through untouched
+			out.append(text);
+		} else if (start < length) {
+			out.append(text, start, length);
+		}
+	}
+}
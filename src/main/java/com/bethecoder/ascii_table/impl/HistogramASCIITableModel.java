@@ -0,0 +1,393 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * A table whose rows can be added, changed and removed, that keeps its
+ * column widths up to date as it goes.
+ *
+ * Each column keeps a count of how many of its cells have each width, so
+ * adding or removing a cell only changes a count. When the widest cells
+ * of a column are removed, the next widest width is found by looking
+ * down the counts the next time the widths are read, instead of by
+ * measuring every row again. This suits sliding windows, where old rows
+ * are dropped as new ones arrive. The rows are kept in a ring, so
+ * dropping rows from the top takes time in the number dropped, not the
+ * number left.
+ *
+ * Unlike {@link LiveASCIITable}, a model isn't thread-safe. Threads that
+ * share one must synchronize on it themselves.
+ *
+ * @author ben
+ *
+ */
+public class HistogramASCIITableModel {
+	/*
+	 * The number of cells of each width in one column
+	 */
+	private static final class WidthHistogram {
+		// The number of cells with each width
+		private int[]	counts	= new int[16];
+
+		// No width above this has any cells. The cells at this width may
+		// all have been removed since the widest width was last read.
+		private int		ceiling;
+
+		/*
+		 * Count a cell, and say whether it is wider than any before it
+		 */
+		public boolean add(int width) {
+			if (width >= counts.length) {
+				counts = Arrays.copyOf(counts,
+						Math.max(width + 1, counts.length * 2));
+			}
+
+			counts[width]++;
+
+			if (width > ceiling) {
+				ceiling = width;
+
+				return true;
+			}
+
+			return false;
+		}
+
+		/*
+		 * Get the widest width that has any cells
+		 */
+		public int getMaxWidth() {
+			while (ceiling > 0 && counts[ceiling] == 0) {
+				ceiling--;
+			}
+
+			return ceiling;
+		}
+
+		/*
+		 * Stop counting a cell, and say whether the widest width may have
+		 * got narrower. Finding the new widest width is left until it is
+		 * read, so this is constant time.
+		 */
+		public boolean remove(int width) {
+			counts[width]--;
+
+			return width == ceiling && counts[width] == 0;
+		}
+	}
+
+	// The headers of the table
+	private final ASCIITableHeader[]	headerObjects;
+
+	// The rows in the table, in a ring whose size is a power of two
+	private String[][]					rows		= new String[16][];
+
+	// Where in the ring the first row is, and how many rows there are
+	private int							head;
+	private int							rowCount;
+
+	// The widths of the cells in each column
+	private WidthHistogram[]			histograms	= new WidthHistogram[0];
+
+	// The layout for the current widths, or null if they've changed
+	private TableLayout					layout;
+
+	// The renderer to render the table with
+	private final SimpleASCIITableImpl	renderer	= new SimpleASCIITableImpl();
+
+	/**
+	 * Create a new, empty table
+	 *
+	 * @param headerObjects
+	 *            The headers of the table
+	 */
+	public HistogramASCIITableModel(ASCIITableHeader[] headerObjects) {
+		this.headerObjects = headerObjects.clone();
+	}
+
+	/**
+	 * Add a row to the bottom of the table
+	 *
+	 * @param row
+	 *            The cells in the row
+	 */
+	public void add(String... row) {
+		String[] copy = row.clone();
+
+		count(copy);
+
+		if (rowCount == rows.length) {
+			rows = toArray(rows.length * 2);
+			head = 0;
+		}
+
+		rows[slot(rowCount++)] = copy;
+	}
+
+	/**
+	 * Get the column widths of the table, not counting borders or headers
+	 *
+	 * @return The width of the widest cell in each column
+	 */
+	public int[] getColumnWidths() {
+		int[] widths = new int[histograms.length];
+
+		for (int i = 0; i < histograms.length; i++) {
+			widths[i] = histograms[i].getMaxWidth();
+		}
+
+		return widths;
+	}
+
+	/**
+	 * Get the layout that fits the table as it currently stands. The
+	 * layout is only rebuilt when the column widths have changed.
+	 *
+	 * @return The layout of the table
+	 */
+	public TableLayout getLayout() {
+		if (layout == null) {
+			layout = new TableLayout(headerObjects, getColumnWidths());
+		}
+
+		return layout;
+	}
+
+	/**
+	 * Get a row of the table
+	 *
+	 * @param row
+	 *            The index of the row
+	 * @return A copy of the cells in the row
+	 */
+	public String[] getRow(int row) {
+		return rows[slot(checkIndex(row))].clone();
+	}
+
+	/**
+	 * Get the number of rows in the table
+	 *
+	 * @return The number of rows in the table
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Render the table as a string
+	 *
+	 * @return The table in string form
+	 */
+	public String getTable() {
+		StringBuilder tableBuilder = new StringBuilder();
+
+		try {
+			renderTo(tableBuilder);
+		} catch (IOException ioex) {
+			throw SimpleASCIITableImpl.unexpectedIOException(ioex);
+		}
+
+		return tableBuilder.toString();
+	}
+
+	/**
+	 * Remove a row from the table
+	 *
+	 * @param row
+	 *            The index of the row to remove
+	 * @return The cells in the removed row
+	 */
+	public String[] remove(int row) {
+		String[] removed = rows[slot(checkIndex(row))];
+
+		uncount(removed);
+
+		// Close the gap from whichever end is nearer
+		if (row < rowCount / 2) {
+			for (int i = row; i > 0; i--) {
+				rows[slot(i)] = rows[slot(i - 1)];
+			}
+
+			rows[head] = null;
+			head = slot(1);
+		} else {
+			for (int i = row; i < rowCount - 1; i++) {
+				rows[slot(i)] = rows[slot(i + 1)];
+			}
+
+			rows[slot(rowCount - 1)] = null;
+		}
+
+		rowCount--;
+
+		return removed;
+	}
+
+	/**
+	 * Remove rows from the top of the table, as when the oldest rows of a
+	 * window are dropped
+	 *
+	 * @param count
+	 *            The number of rows to remove
+	 */
+	public void removeFirst(int count) {
+		if (count < 0 || count > rowCount) {
+			throw new IndexOutOfBoundsException(
+					"Can't remove " + count + " of " + rowCount + " rows");
+		}
+
+		for (int i = 0; i < count; i++) {
+			uncount(rows[head]);
+
+			// The rest of the rows stay where they are
+			rows[head] = null;
+			head = slot(1);
+		}
+
+		rowCount -= count;
+	}
+
+	/**
+	 * Render the table to the provided output, using the maintained
+	 * column widths
+	 *
+	 * @param out
+	 *            The place to write the table to
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public void renderTo(Appendable out) throws IOException {
+		renderer.renderTo(out, getLayout(), toArray(rowCount));
+	}
+
+	/**
+	 * Replace a row of the table
+	 *
+	 * @param row
+	 *            The index of the row to replace
+	 * @param cells
+	 *            The new cells in the row
+	 * @return The cells that were replaced
+	 */
+	public String[] set(int row, String... cells) {
+		String[] copy = cells.clone();
+
+		int slot = slot(checkIndex(row));
+
+		String[] replaced = rows[slot];
+
+		rows[slot] = copy;
+
+		uncount(replaced);
+		count(copy);
+
+		return replaced;
+	}
+
+	/**
+	 * Replace one cell of the table
+	 *
+	 * @param row
+	 *            The row of the cell
+	 * @param column
+	 *            The column of the cell
+	 * @param cell
+	 *            The new contents of the cell
+	 * @return The contents that were replaced
+	 */
+	public String set(int row, int column, String cell) {
+		String[] cells = rows[slot(checkIndex(row))];
+
+		String replaced = cells[column];
+
+		int oldWidth = TableLayout.measure(replaced);
+		int newWidth = TableLayout.measure(cell);
+
+		cells[column] = cell;
+
+		if (oldWidth != newWidth) {
+			WidthHistogram histogram = histograms[column];
+
+			boolean isNarrower = histogram.remove(oldWidth);
+			boolean isWider = histogram.add(newWidth);
+
+			if (isNarrower || isWider) {
+				layout = null;
+			}
+		}
+
+		return replaced;
+	}
+
+	/*
+	 * Check a row is in the table, returning its index
+	 */
+	private int checkIndex(int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException(
+					"Row " + row + " of " + rowCount);
+		}
+
+		return row;
+	}
+
+	/*
+	 * Get where in the ring a row is kept
+	 */
+	private int slot(int row) {
+		return (head + row) & (rows.length - 1);
+	}
+
+	/*
+	 * Copy the rows, in order, into an array of the given length
+	 */
+	private String[][] toArray(int length) {
+		String[][] ordered = new String[length][];
+
+		int firstPart = Math.min(rowCount, rows.length - head);
+
+		System.arraycopy(rows, head, ordered, 0, firstPart);
+		System.arraycopy(rows, 0, ordered, firstPart, rowCount - firstPart);
+
+		return ordered;
+	}
+
+	/*
+	 * Add the widths of a row's cells to the histograms
+	 */
+	private void count(String[] row) {
+		if (row.length > histograms.length) {
+			int oldLength = histograms.length;
+
+			histograms = Arrays.copyOf(histograms, row.length);
+
+			for (int i = oldLength; i < histograms.length; i++) {
+				histograms[i] = new WidthHistogram();
+			}
+
+			layout = null;
+		}
+
+		for (int i = 0; i < row.length; i++) {
+			if (histograms[i].add(TableLayout.measure(row[i]))) {
+				layout = null;
+			}
+		}
+	}
+
+	/*
+	 * Take the widths of a row's cells back out of the histograms. While
+	 * a column's widest width is unknown the layout stays cleared, since
+	 * it is only rebuilt by reading every column's widest width.
+	 */
+	private void uncount(String[] row) {
+		for (int i = 0; i < row.length; i++) {
+			if (histograms[i].remove(TableLayout.measure(row[i]))) {
+				layout = null;
+			}
+		}
+	}
+}
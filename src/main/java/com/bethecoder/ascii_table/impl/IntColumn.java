@@ -0,0 +1,80 @@
+package com.bethecoder.ascii_table.impl;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * A column of ints, written out as plain digits.
+ *
+ * The values are not copied, so they shouldn't be changed while the
+ * column is being rendered.
+ *
+ * @author ben
+ *
+ */
+public class IntColumn extends TableColumn {
+	// The values in the column
+	private final int[] values;
+
+	/**
+	 * Create a new column of ints
+	 *
+	 * @param header
+	 *            The header of the column
+	 * @param values
+	 *            The values in the column
+	 */
+	public IntColumn(ASCIITableHeader header, int... values) {
+		super(header);
+
+		this.values = values;
+	}
+
+	/**
+	 * Create a new column of ints
+	 *
+	 * @param header
+	 *            The name of the column
+	 * @param values
+	 *            The values in the column
+	 */
+	public IntColumn(String header, int... values) {
+		this(new ASCIITableHeader(header), values);
+	}
+
+	@Override
+	public void appendTo(StringBuilder builder, int row) {
+		builder.append(values[row]);
+	}
+
+	@Override
+	public int getWidth() {
+		if (values.length == 0) {
+			return 0;
+		}
+
+		// The widest cell is either the largest or the smallest value
+		int min = values[0];
+		int max = values[0];
+
+		for (int value : values) {
+			if (value < min) {
+				min = value;
+			} else if (value > max) {
+				max = value;
+			}
+		}
+
+		return Math.max(LongColumn.measureWhole(min),
+				LongColumn.measureWhole(max));
+	}
+
+	@Override
+	public int measure(int row) {
+		return LongColumn.measureWhole(values[row]);
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+}
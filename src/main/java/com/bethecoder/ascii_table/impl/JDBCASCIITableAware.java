@@ -15,10 +15,10 @@
  */
 package com.bethecoder.ascii_table.impl;
 
-import java.math.BigDecimal;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.text.NumberFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +26,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.bethecoder.ascii_table.ASCIITableHeader;
 import com.bethecoder.ascii_table.spec.IASCIITableAware;
+import com.bethecoder.ascii_table.spec.IASCIITableTruncationAware;
 
 /**
  * This class is useful for creating a basic table from a JDBC result set
@@ -34,11 +35,21 @@ import com.bethecoder.ascii_table.spec.IASCIITableAware;
  * @version 1.0
  *
  */
-public class JDBCASCIITableAware implements IASCIITableAware<Object> {
+public class JDBCASCIITableAware
+		implements IASCIITableAware<Object>, IASCIITableTruncationAware {
 	// The headers in the table
 	private List<ASCIITableHeader>	headers	= null;
 	// The data in the table
 	private List<List<Object>>		data	= null;
+	// The reader holding each column of the data
+	private JDBCColumnReader[]		readers	= null;
+	// The number of rows in the table
+	private int						rowCount;
+	// The limits on how much of the result set to read
+	private JDBCReadBudget			budget	= null;
+	// The formatters for cell values
+	private CellFormatterRegistry	formatters	= CellFormatterRegistry
+			.getDefault();
 
 	/**
 	 * Create an ASCII table from a JDBC result set
@@ -47,6 +58,27 @@ public class JDBCASCIITableAware implements IASCIITableAware<Object> {
 	 *            The result set to build the table from
 	 */
 	public JDBCASCIITableAware(ResultSet queryResults) {
+		this(queryResults, 0, 0);
+	}
+
+	/**
+	 * Create an ASCII table from the start of a JDBC result set.
+	 * 
+	 * Once either limit is reached, the query is cancelled, and the table
+	 * reports the rows that weren't read. The result set is left open for
+	 * the caller to close.
+	 * 
+	 * @param queryResults
+	 *            The result set to build the table from
+	 * @param maxRows
+	 *            The most rows to read, or 0 for no limit
+	 * @param maxBytes
+	 *            The most bytes of data to read, roughly, or 0 for no limit
+	 */
+	public JDBCASCIITableAware(ResultSet queryResults, long maxRows,
+			long maxBytes) {
+		budget = new JDBCReadBudget(maxRows, maxBytes);
+
 		try {
 			init(queryResults);
 		} catch (SQLException sqlex) {
@@ -62,13 +94,37 @@ public class JDBCASCIITableAware implements IASCIITableAware<Object> {
 	@Override
 	public String formatData(ASCIITableHeader header, int row, int col,
 			Object cell) {
-		// Format only numbers
-		try {
-			BigDecimal bd = new BigDecimal(cell.toString());
+		if (row < rowCount && col < readers.length
+				&& readers[col].holds(row, cell)) {
+			// Format straight from the column, skipping the boxed value
+			return readers[col].format(row, formatters);
+		}
+
+		return formatters.format(cell);
+	}
 
-			return NumberFormat.getInstance().format(bd);
-		} catch (@SuppressWarnings("unused") NumberFormatException nfex) {
-			return cell.toString();
+	/**
+	 * Format the cells of a row straight from their columns, without
+	 * boxing any values, into the text a renderer would display for them.
+	 * Only renderers that have checked {@link #isFormattingColumns()}
+	 * should call this.
+	 * 
+	 * @param row
+	 *            The row to format
+	 * @param cells
+	 *            The array to put the text of each cell in, which must hold
+	 *            at least one cell for each column
+	 */
+	void formatRow(int row, String[] cells) {
+		for (int col = 0; col < readers.length; col++) {
+			String text = readers[col].format(row, formatters);
+
+			if (text == null) {
+				// As the renderers do when formatData gives them no text
+				text = String.valueOf(readers[col].get(row));
+			}
+
+			cells[col] = text;
 		}
 	}
 
@@ -82,31 +138,110 @@ public class JDBCASCIITableAware implements IASCIITableAware<Object> {
 		return headers;
 	}
 
+	@Override
+	public long getOmittedRowCount() {
+		return budget.getOmittedRowCount();
+	}
+
+	@Override
+	public boolean isTruncated() {
+		return budget.isTruncated();
+	}
+
+	/**
+	 * Check whether renderers can format rows with
+	 * {@link #formatRow(int, String[])} instead of going through getData
+	 * and formatData. They can't for subclasses, which might change either.
+	 * 
+	 * @return Whether renderers can format rows straight from the columns
+	 */
+	boolean isFormattingColumns() {
+		return getClass() == JDBCASCIITableAware.class;
+	}
+
+	/**
+	 * Set the formatters used to display cell values
+	 * 
+	 * @param formatters
+	 *            The formatters used to display cell values
+	 */
+	public void setFormatters(CellFormatterRegistry formatters) {
+		this.formatters = formatters;
+	}
+
 	private void init(ResultSet queryResult) throws SQLException {
+		TableSourceLoadEvent event = null;
+
+		if (FlightRecorderSupport.IS_AVAILABLE) {
+			event = new TableSourceLoadEvent();
+
+			event.begin();
+		}
+
+		ResultSetMetaData metaData = queryResult.getMetaData();
+
 		// Populate headers from result set metadata
-		int colCount = queryResult.getMetaData().getColumnCount();
+		final int colCount = metaData.getColumnCount();
 
 		headers = new ArrayList<>(colCount);
 
-		// Fill in headers names from metadata
+		readers = new JDBCColumnReader[colCount];
+
+		// Fill in headers names and column readers from metadata
 		for (int i = 0; i < colCount; i++) {
-			headers.add(new ASCIITableHeader(StringUtils.capitalize(
-					queryResult.getMetaData().getColumnLabel(i + 1))));
+			headers.add(new ASCIITableHeader(
+					StringUtils.capitalize(metaData.getColumnLabel(i + 1))));
+
+			readers[i] = JDBCColumnReader.forColumn(metaData, i + 1);
 		}
 
 		// Populate data from set
-		data = new ArrayList<>();
-		
-		List<Object> rowData = null;
-
-		while (queryResult.next()) {
-			rowData = new ArrayList<>();
+		while (budget.next(queryResult)) {
+			long rowBytes = 0;
 
 			for (int i = 0; i < colCount; i++) {
-				rowData.add(queryResult.getObject(i + 1));
+				rowBytes += readers[i].read(queryResult);
+			}
+
+			budget.countRow(rowBytes);
+
+			rowCount++;
+		}
+
+		// Present the columns as rows, boxing values only when asked for
+		data = new AbstractList<List<Object>>() {
+			@Override
+			public List<Object> get(final int row) {
+				if (row < 0 || row >= rowCount) {
+					throw new IndexOutOfBoundsException(
+							"Row " + row + " of " + rowCount);
+				}
+
+				return new AbstractList<Object>() {
+					@Override
+					public Object get(int col) {
+						return readers[col].get(row);
+					}
+
+					@Override
+					public int size() {
+						return colCount;
+					}
+				};
 			}
 
-			data.add(rowData);
+			@Override
+			public int size() {
+				return rowCount;
+			}
+		};
+
+		if (event != null && event.shouldCommit()) {
+			event.source = getClass();
+			event.rows = rowCount;
+			event.columns = colCount;
+
+			event.commit();
 		}
 	}
 }
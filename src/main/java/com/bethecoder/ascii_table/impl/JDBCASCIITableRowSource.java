@@ -0,0 +1,273 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.spec.IASCIITableRowSource;
+import com.bethecoder.ascii_table.spec.IASCIITableTruncationAware;
+
+/**
+ * This class streams rows from a JDBC result set into a table, reading
+ * each row only when the renderer asks for it.
+ *
+ * Unlike {@link JDBCASCIITableAware}, the result set is never held in
+ * memory, so this can render result sets of any size.
+ *
+ * @author ben
+ *
+ */
+public class JDBCASCIITableRowSource
+		implements IASCIITableRowSource<Object>, IASCIITableTruncationAware {
+	// The result set to read from
+	private final ResultSet					queryResult;
+
+	// The number of columns in the result set
+	private final int						colCount;
+
+	// The headers in the table
+	private final List<ASCIITableHeader>	headers;
+
+	// The widths of each column, if they come from the metadata
+	private final int[]						columnWidths;
+
+	// The limits on how much of the result set to read
+	private final JDBCReadBudget			budget;
+
+	// The formatters for cell values
+	private CellFormatterRegistry			formatters	= CellFormatterRegistry
+			.getDefault();
+
+	/**
+	 * Create a streamed table from a JDBC result set. Column widths are
+	 * worked out from a sample of the rows.
+	 *
+	 * @param queryResult
+	 *            The result set to build the table from
+	 * @param fetchSize
+	 *            The number of rows to fetch from the database at once, or
+	 *            0 to leave it up to the driver
+	 */
+	public JDBCASCIITableRowSource(ResultSet queryResult, int fetchSize) {
+		this(queryResult, fetchSize, 0);
+	}
+
+	/**
+	 * Create a streamed table from a JDBC result set.
+	 *
+	 * @param queryResult
+	 *            The result set to build the table from
+	 * @param fetchSize
+	 *            The number of rows to fetch from the database at once, or
+	 *            0 to leave it up to the driver
+	 * @param maximumColumnWidth
+	 *            If positive, take column widths from the display size the
+	 *            result set metadata gives for each column, capped at this
+	 *            width. Otherwise, work the widths out from a sample of the
+	 *            rows.
+	 */
+	public JDBCASCIITableRowSource(ResultSet queryResult, int fetchSize,
+			int maximumColumnWidth) {
+		this(queryResult, fetchSize, maximumColumnWidth, 0, 0);
+	}
+
+	/**
+	 * Create a streamed table from the start of a JDBC result set.
+	 *
+	 * Once either limit is reached, the query is cancelled, and the table
+	 * reports the rows that weren't read. The result set is left open for
+	 * the caller to close.
+	 *
+	 * @param queryResult
+	 *            The result set to build the table from
+	 * @param fetchSize
+	 *            The number of rows to fetch from the database at once, or
+	 *            0 to leave it up to the driver
+	 * @param maximumColumnWidth
+	 *            If positive, take column widths from the display size the
+	 *            result set metadata gives for each column, capped at this
+	 *            width. Otherwise, work the widths out from a sample of the
+	 *            rows.
+	 * @param maxRows
+	 *            The most rows to read, or 0 for no limit
+	 * @param maxBytes
+	 *            The most bytes of data to read, roughly, or 0 for no limit
+	 */
+	public JDBCASCIITableRowSource(ResultSet queryResult, int fetchSize,
+			int maximumColumnWidth, long maxRows, long maxBytes) {
+		this.queryResult = queryResult;
+
+		budget = new JDBCReadBudget(maxRows, maxBytes);
+
+		try {
+			if (fetchSize > 0) {
+				queryResult.setFetchSize(fetchSize);
+			}
+
+			ResultSetMetaData metaData = queryResult.getMetaData();
+
+			colCount = metaData.getColumnCount();
+
+			headers = new ArrayList<>(colCount);
+
+			// Fill in headers names from metadata
+			for (int i = 0; i < colCount; i++) {
+				headers.add(new ASCIITableHeader(StringUtils
+						.capitalize(metaData.getColumnLabel(i + 1))));
+			}
+
+			if (maximumColumnWidth > 0) {
+				columnWidths = new int[colCount];
+
+				for (int i = 0; i < colCount; i++) {
+					columnWidths[i] = Math.min(
+							getDisplayWidth(metaData, i + 1),
+							maximumColumnWidth);
+				}
+			} else {
+				columnWidths = null;
+			}
+		} catch (SQLException sqlex) {
+			throw unableToRead(sqlex);
+		}
+	}
+
+	/*
+	 * Get the width a column will need, according to the metadata
+	 */
+	private static int getDisplayWidth(ResultSetMetaData metaData,
+			int column) throws SQLException {
+		int displaySize = metaData.getColumnDisplaySize(column);
+
+		if (displaySize <= 0) {
+			displaySize = metaData.getPrecision(column);
+		}
+
+		switch (metaData.getColumnType(column)) {
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+			case Types.BIGINT:
+			case Types.DECIMAL:
+			case Types.NUMERIC:
+			case Types.REAL:
+			case Types.FLOAT:
+			case Types.DOUBLE:
+				// Leave room for digit grouping
+				return displaySize + displaySize / 3;
+			default:
+				return displaySize;
+		}
+	}
+
+	private static IllegalStateException unableToRead(SQLException sqlex) {
+		IllegalStateException isex = new IllegalStateException(
+				"Unable to get table data ");
+
+		isex.initCause(sqlex);
+
+		return isex;
+	}
+
+	@Override
+	public String formatData(ASCIITableHeader header, int row, int col,
+			Object cell) {
+		return formatters.format(cell);
+	}
+
+	@Override
+	public int[] getColumnWidths() {
+		if (columnWidths == null) {
+			return null;
+		}
+
+		return columnWidths.clone();
+	}
+
+	@Override
+	public List<ASCIITableHeader> getHeaders() {
+		return headers;
+	}
+
+	@Override
+	public long getOmittedRowCount() {
+		return budget.getOmittedRowCount();
+	}
+
+	@Override
+	public Iterator<List<Object>> getRows() {
+		return new Iterator<List<Object>>() {
+			// Whether we've moved to the row we'll hand out next
+			private boolean	isAdvanced	= false;
+			// Whether that row exists
+			private boolean	hasRow		= false;
+
+			@Override
+			public boolean hasNext() {
+				if (!isAdvanced) {
+					try {
+						hasRow = budget.next(queryResult);
+					} catch (SQLException sqlex) {
+						throw unableToRead(sqlex);
+					}
+
+					isAdvanced = true;
+				}
+
+				return hasRow;
+			}
+
+			@Override
+			public List<Object> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				isAdvanced = false;
+
+				List<Object> rowData = new ArrayList<>(colCount);
+
+				long rowBytes = 0;
+
+				try {
+					for (int i = 0; i < colCount; i++) {
+						Object value = queryResult.getObject(i + 1);
+
+						rowBytes += JDBCReadBudget.estimateSize(value);
+
+						rowData.add(value);
+					}
+				} catch (SQLException sqlex) {
+					throw unableToRead(sqlex);
+				}
+
+				budget.countRow(rowBytes);
+
+				return rowData;
+			}
+		};
+	}
+
+	@Override
+	public boolean isTruncated() {
+		return budget.isTruncated();
+	}
+
+	/**
+	 * Set the formatters used to display cell values
+	 *
+	 * @param formatters
+	 *            The formatters used to display cell values
+	 */
+	public void setFormatters(CellFormatterRegistry formatters) {
+		this.formatters = formatters;
+	}
+}
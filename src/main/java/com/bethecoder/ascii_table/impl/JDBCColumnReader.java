@@ -0,0 +1,308 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Reads one column of a JDBC result set into memory, using the getter
+ * that suits the type of the column.
+ *
+ * Whole and floating point columns are kept in primitive arrays, so they
+ * are never boxed on the way in, and are formatted without being parsed
+ * back out of text. Whole numbers are always kept as longs, so unsigned
+ * int columns don't wrap, and unsigned bigint columns, which can go past
+ * a long, are read as objects instead.
+ *
+ * @author ben
+ *
+ */
+abstract class JDBCColumnReader {
+	/*
+	 * Reads whole number columns as longs
+	 */
+	private static final class WholeReader extends JDBCColumnReader {
+		// Whether the column holds ints, rather than longs. Values that
+		// don't fit in an int, as in unsigned columns, are still longs.
+		private final boolean	isInt;
+
+		private long[]			values	= new long[16];
+
+		public WholeReader(int column, boolean isInt) {
+			super(column);
+
+			this.isInt = isInt;
+		}
+
+		@Override
+		protected String formatValue(int row,
+				CellFormatterRegistry formatters) {
+			if (isInt(row)) {
+				return formatters.format((int) values[row]);
+			}
+
+			return formatters.format(values[row]);
+		}
+
+		@Override
+		protected Object getValue(int row) {
+			if (isInt(row)) {
+				return Integer.valueOf((int) values[row]);
+			}
+
+			return Long.valueOf(values[row]);
+		}
+
+		@Override
+		protected boolean holdsValue(int row, Object cell) {
+			return (cell instanceof Integer || cell instanceof Long)
+					&& ((Number) cell).longValue() == values[row];
+		}
+
+		private boolean isInt(int row) {
+			return isInt && (int) values[row] == values[row];
+		}
+
+		@Override
+		protected long readValue(ResultSet queryResult, int row)
+				throws SQLException {
+			if (row == values.length) {
+				values = Arrays.copyOf(values, row * 2);
+			}
+
+			values[row] = queryResult.getLong(column);
+
+			return 8;
+		}
+	}
+
+	/*
+	 * Reads floating point columns as doubles
+	 */
+	private static final class RealReader extends JDBCColumnReader {
+		private double[] values = new double[16];
+
+		public RealReader(int column) {
+			super(column);
+		}
+
+		@Override
+		protected String formatValue(int row,
+				CellFormatterRegistry formatters) {
+			return formatters.format(values[row]);
+		}
+
+		@Override
+		protected Object getValue(int row) {
+			return Double.valueOf(values[row]);
+		}
+
+		@Override
+		protected boolean holdsValue(int row, Object cell) {
+			return cell instanceof Double
+					&& Double.doubleToLongBits((Double) cell) == Double
+							.doubleToLongBits(values[row]);
+		}
+
+		@Override
+		protected long readValue(ResultSet queryResult, int row)
+				throws SQLException {
+			if (row == values.length) {
+				values = Arrays.copyOf(values, row * 2);
+			}
+
+			values[row] = queryResult.getDouble(column);
+
+			return 8;
+		}
+	}
+
+	/*
+	 * Reads any other column as whatever object the driver gives us
+	 */
+	private static final class ObjectReader extends JDBCColumnReader {
+		// Whether the column holds text
+		private final boolean		isText;
+
+		private final List<Object>	values	= new ArrayList<>();
+
+		public ObjectReader(int column, boolean isText) {
+			super(column);
+
+			this.isText = isText;
+		}
+
+		@Override
+		protected String formatValue(int row,
+				CellFormatterRegistry formatters) {
+			return formatters.format(values.get(row));
+		}
+
+		@Override
+		protected Object getValue(int row) {
+			return values.get(row);
+		}
+
+		@Override
+		protected boolean holdsValue(int row, Object cell) {
+			return cell == values.get(row);
+		}
+
+		@Override
+		protected long readValue(ResultSet queryResult, int row)
+				throws SQLException {
+			Object value;
+
+			if (isText) {
+				value = queryResult.getString(column);
+			} else {
+				value = queryResult.getObject(column);
+			}
+
+			values.add(value);
+
+			return JDBCReadBudget.estimateSize(value);
+		}
+	}
+
+	// The index of the column in the result set
+	protected final int		column;
+
+	// The rows where the column was null
+	private final BitSet	nulls	= new BitSet();
+
+	// The number of rows read
+	private int				rowCount;
+
+	protected JDBCColumnReader(int column) {
+		this.column = column;
+	}
+
+	/**
+	 * Create a reader suited to a column of a result set
+	 *
+	 * @param metaData
+	 *            The metadata of the result set
+	 * @param column
+	 *            The index of the column in the result set
+	 * @return A reader for the column
+	 * @throws SQLException
+	 *             If something goes wrong reading the metadata
+	 */
+	static JDBCColumnReader forColumn(ResultSetMetaData metaData,
+			int column) throws SQLException {
+		switch (metaData.getColumnType(column)) {
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+				return new WholeReader(column, true);
+			case Types.BIGINT:
+				if (!metaData.isSigned(column)) {
+					// Unsigned bigints can be too big for a long
+					return new ObjectReader(column, false);
+				}
+
+				return new WholeReader(column, false);
+			case Types.FLOAT:
+			case Types.DOUBLE:
+				return new RealReader(column);
+			case Types.CHAR:
+			case Types.VARCHAR:
+			case Types.LONGVARCHAR:
+			case Types.NCHAR:
+			case Types.NVARCHAR:
+			case Types.LONGNVARCHAR:
+				return new ObjectReader(column, true);
+			default:
+				return new ObjectReader(column, false);
+		}
+	}
+
+	/**
+	 * Format the value of this column in a row
+	 *
+	 * @param row
+	 *            The row to format
+	 * @param formatters
+	 *            The formatters for cell values
+	 * @return The formatted value, or null if the value is null
+	 */
+	String format(int row, CellFormatterRegistry formatters) {
+		if (nulls.get(row)) {
+			return null;
+		}
+
+		return formatValue(row, formatters);
+	}
+
+	/**
+	 * Get the value of this column in a row
+	 *
+	 * @param row
+	 *            The row to get the value from
+	 * @return The value in the row
+	 */
+	Object get(int row) {
+		if (nulls.get(row)) {
+			return null;
+		}
+
+		return getValue(row);
+	}
+
+	/**
+	 * Check whether a cell is this column's value in a row, rather than
+	 * something put in its place
+	 *
+	 * @param row
+	 *            The row the cell came from
+	 * @param cell
+	 *            The cell
+	 * @return Whether the cell holds the value in the row
+	 */
+	boolean holds(int row, Object cell) {
+		if (nulls.get(row)) {
+			return cell == null;
+		}
+
+		return holdsValue(row, cell);
+	}
+
+	/**
+	 * Read the value of this column in the current row of a result set
+	 *
+	 * @param queryResult
+	 *            The result set to read from
+	 * @return The estimated size of the value in bytes
+	 * @throws SQLException
+	 *             If something goes wrong reading the value
+	 */
+	long read(ResultSet queryResult) throws SQLException {
+		long size = readValue(queryResult, rowCount);
+
+		if (queryResult.wasNull()) {
+			nulls.set(rowCount);
+
+			size = 0;
+		}
+
+		rowCount++;
+
+		return size;
+	}
+
+	protected abstract String formatValue(int row,
+			CellFormatterRegistry formatters);
+
+	protected abstract Object getValue(int row);
+
+	protected abstract boolean holdsValue(int row, Object cell);
+
+	protected abstract long readValue(ResultSet queryResult, int row)
+			throws SQLException;
+}
@@ -0,0 +1,147 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Tracks how much of a JDBC result set has been read, and stops the query
+ * once a limit on rows or bytes has been reached.
+ *
+ * @author ben
+ *
+ */
+final class JDBCReadBudget {
+	// The limits on what to read, or 0 for no limit
+	private final long	maxRows;
+	private final long	maxBytes;
+
+	// What we've read so far
+	private long		rowsRead;
+	private long		bytesRead;
+
+	// Whether we stopped before the end of the result set
+	private boolean		isTruncated;
+	// The number of rows we didn't read, or -1 if not known
+	private long		omittedRowCount;
+
+	/**
+	 * Create a new budget
+	 *
+	 * @param maxRows
+	 *            The most rows to read, or 0 for no limit
+	 * @param maxBytes
+	 *            The most bytes of data to read, or 0 for no limit
+	 */
+	JDBCReadBudget(long maxRows, long maxBytes) {
+		this.maxRows = maxRows;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Roughly estimate the number of bytes a value takes up
+	 *
+	 * @param value
+	 *            The value to estimate the size of
+	 * @return The estimated size of the value
+	 */
+	static long estimateSize(Object value) {
+		if (value == null) {
+			return 0;
+		} else if (value instanceof Number) {
+			return 8;
+		} else if (value instanceof CharSequence) {
+			return 2L * ((CharSequence) value).length();
+		}
+
+		return 16;
+	}
+
+	/**
+	 * Move to the next row of a result set, if the budget has room for it.
+	 *
+	 * Once the budget is used up and there are still rows left, the
+	 * statement is cancelled, so the database stops working on rows we'll
+	 * never show. The result set is left open, as it belongs to the caller.
+	 *
+	 * @param queryResult
+	 *            The result set to advance
+	 * @return Whether there is a row to read
+	 * @throws SQLException
+	 *             If something goes wrong moving through the result set
+	 */
+	boolean next(ResultSet queryResult) throws SQLException {
+		if (isTruncated) {
+			return false;
+		}
+
+		boolean isSpent = (maxRows > 0 && rowsRead >= maxRows)
+				|| (maxBytes > 0 && bytesRead >= maxBytes);
+
+		if (!queryResult.next()) {
+			return false;
+		}
+
+		if (!isSpent) {
+			return true;
+		}
+
+		// There's a row we won't show, so stop here
+		isTruncated = true;
+		omittedRowCount = -1;
+
+		if (queryResult.getType() != ResultSet.TYPE_FORWARD_ONLY) {
+			// Scrollable cursors can tell us how much is left cheaply
+			int currentRow = queryResult.getRow();
+
+			if (currentRow > 0 && queryResult.last()) {
+				omittedRowCount = queryResult.getRow() - currentRow + 1;
+			}
+		}
+
+		stop(queryResult);
+
+		return false;
+	}
+
+	/**
+	 * Count a row against the budget
+	 *
+	 * @param rowBytes
+	 *            The estimated size of the row
+	 */
+	void countRow(long rowBytes) {
+		rowsRead++;
+		bytesRead += rowBytes;
+	}
+
+	/**
+	 * Get the number of rows that weren't read
+	 *
+	 * @return The number of rows that weren't read, or -1 if not known
+	 */
+	long getOmittedRowCount() {
+		return omittedRowCount;
+	}
+
+	/**
+	 * Check if the budget stopped the query early
+	 *
+	 * @return Whether the budget stopped the query early
+	 */
+	boolean isTruncated() {
+		return isTruncated;
+	}
+
+	private static void stop(ResultSet queryResult) {
+		try {
+			Statement statement = queryResult.getStatement();
+
+			if (statement != null) {
+				statement.cancel();
+			}
+		} catch (@SuppressWarnings("unused") SQLException sqlex) {
+			// Not every driver can cancel, the caller still closes the cursor
+		}
+	}
+}
@@ -0,0 +1,228 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.spec.IASCIITableAware;
+
+/**
+ * A version of {@link CollectionASCIITableAware} that doesn't copy any
+ * data out of the beans ahead of time.
+ *
+ * The data is a view over the list of beans, and a property is only read
+ * when its cell is. This means rendering only part of the table, say with
+ * {@link List#subList(int, int)}, only reads the beans in that part, and
+ * properties that aren't projected into the table are never read at all.
+ *
+ * Rows are read by index, so a list of beans without fast random access,
+ * such as a {@link java.util.LinkedList}, is copied into an array list
+ * first. Only the references are copied, not the beans.
+ *
+ * @author ben
+ *
+ */
+public class LazyCollectionASCIITableAware
+		implements IASCIITableAware<Object> {
+	/*
+	 * A view of one bean as a row of property values
+	 */
+	private final class BeanRow extends AbstractList<Object> {
+		private final Object bean;
+
+		public BeanRow(Object bean) {
+			this.bean = bean;
+		}
+
+		@Override
+		public Object get(int index) {
+			try {
+				return getAccessor(index).apply(bean);
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		public int size() {
+			return beanProperties.size();
+		}
+	}
+
+	// The beans in the table
+	private final List<?>					beanList;
+
+	// The properties to display, and their headers
+	private final List<String>				beanProperties;
+	private final List<String>				propertyHeaders;
+
+	// The headers for each of the columns
+	private List<ASCIITableHeader>			headers	= null;
+	// The data in the table
+	private List<List<Object>>				data	= null;
+
+	// The accessor for each property, resolved on first use
+	private final Function<Object, Object>[]	accessors;
+
+	// The formatters for cell values
+	private CellFormatterRegistry			formatters	= CellFormatterRegistry
+			.getDefault();
+
+	/**
+	 * Create a new lazy table of objects from a collection
+	 *
+	 * @param beanList
+	 *            The list of objects to convert into a table
+	 * @param beanProperties
+	 *            The properties in the object
+	 * @param propertyHeaders
+	 *            The headers for each of the properties
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public LazyCollectionASCIITableAware(List<?> beanList,
+			List<String> beanProperties, List<String> propertyHeaders) {
+		if (beanList == null || beanList instanceof RandomAccess) {
+			this.beanList = beanList;
+		} else {
+			this.beanList = new ArrayList<>(beanList);
+		}
+
+		this.beanProperties = beanProperties;
+		this.propertyHeaders = propertyHeaders;
+
+		if (beanProperties == null) {
+			accessors = new Function[0];
+		} else {
+			accessors = new Function[beanProperties.size()];
+		}
+
+		if (beanList != null && !beanList.isEmpty()
+				&& beanProperties != null && !beanProperties.isEmpty()) {
+			// Fill out table headers if they've been provided
+			headers = new ArrayList<>(beanProperties.size());
+
+			for (int i = 0; i < beanProperties.size(); i++) {
+				headers.add(new ASCIITableHeader(
+						getPropertyHeader(i).toUpperCase()));
+			}
+
+			data = new AbstractList<List<Object>>() {
+				@Override
+				public List<Object> get(int index) {
+					return new BeanRow(
+							LazyCollectionASCIITableAware.this.beanList
+									.get(index));
+				}
+
+				@Override
+				public int size() {
+					return LazyCollectionASCIITableAware.this.beanList
+							.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Create a new lazy table from a list of objects
+	 *
+	 * @param beanList
+	 *            The list of object to turn into a table
+	 * @param beanProperties
+	 *            The defined properties on those objects
+	 */
+	public LazyCollectionASCIITableAware(List<?> beanList,
+			String... beanProperties) {
+		this(beanList, Arrays.asList(beanProperties),
+				Arrays.asList(beanProperties));
+	}
+
+	@Override
+	public String formatData(ASCIITableHeader rowHeader, int row, int col,
+			Object cellData) {
+		return formatters.format(cellData);
+	}
+
+	@Override
+	public List<List<Object>> getData() {
+		return data;
+	}
+
+	@Override
+	public List<ASCIITableHeader> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Set the formatters used to display cell values
+	 * 
+	 * @param formatters
+	 *            The formatters used to display cell values
+	 */
+	public void setFormatters(CellFormatterRegistry formatters) {
+		this.formatters = formatters;
+	}
+
+	/**
+	 * Create a view of this table containing only some of its properties.
+	 * Properties left out of the view are never read from the beans.
+	 *
+	 * @param properties
+	 *            The properties to include, in the order to display them
+	 * @return A view of this table with only the given properties
+	 */
+	public LazyCollectionASCIITableAware project(String... properties) {
+		List<String> projectedHeaders = new ArrayList<>(properties.length);
+
+		for (String property : properties) {
+			int index = -1;
+
+			if (beanProperties != null) {
+				index = beanProperties.indexOf(property);
+			}
+
+			if (index < 0) {
+				throw new IllegalArgumentException(
+						"Property " + property + " is not in this table");
+			}
+
+			projectedHeaders.add(getPropertyHeader(index));
+		}
+
+		LazyCollectionASCIITableAware projection = new LazyCollectionASCIITableAware(
+				beanList, Arrays.asList(properties), projectedHeaders);
+
+		projection.formatters = formatters;
+
+		return projection;
+	}
+
+	private Function<Object, Object> getAccessor(int index) {
+		Function<Object, Object> accessor = accessors[index];
+
+		if (accessor == null) {
+			/*
+			 * Accessors are cached globally, so racing to fill this in just
+			 * means looking up the same one twice.
+			 */
+			accessor = BeanAccessors.getAccessor(
+					beanList.get(0).getClass(), beanProperties.get(index));
+
+			accessors[index] = accessor;
+		}
+
+		return accessor;
+	}
+
+	private String getPropertyHeader(int index) {
+		if (index < propertyHeaders.size()) {
+			return propertyHeaders.get(index);
+		}
+
+		return beanProperties.get(index);
+	}
+}
@@ -0,0 +1,194 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * An ASCII table that rows can be added to while it is being displayed.
+ *
+ * The table keeps track of the widest cell in each column as rows come
+ * in. While a new row fits in the existing columns, only that row is
+ * written out. When a row needs a wider column, the whole table is
+ * written out again with the new widths.
+ *
+ * The bottom border is only written by {@link #finish()}, since rows can
+ * be added below the last one at any time.
+ *
+ * @author ben
+ *
+ */
+public class LiveASCIITable {
+	// The place to write the table to
+	private final Appendable			out;
+
+	// The headers of the table
+	private final ASCIITableHeader[]	headerObjects;
+
+	// The rows added so far
+	private final List<String[]>		rows	= new ArrayList<>();
+
+	// The width of the widest cell in each column
+	private int[]						columnWidths;
+
+	// The layout for the current widths
+	private TableLayout					layout;
+
+	// Reused to build each row before writing it out
+	private final StringBuilder			rowBuilder;
+
+	/**
+	 * Create a new live table
+	 *
+	 * @param headerObjects
+	 *            The headers of the table
+	 * @param out
+	 *            The place to write the table to
+	 */
+	public LiveASCIITable(ASCIITableHeader[] headerObjects,
+			Appendable out) {
+		this.out = out;
+		this.headerObjects = headerObjects.clone();
+
+		layout = new TableLayout(this.headerObjects, new int[0]);
+
+		columnWidths = layout.getColumnWidths();
+
+		rowBuilder = new StringBuilder(layout.getSeparatorLine().length());
+	}
+
+	/**
+	 * Add a row to the bottom of the table, and write out the change.
+	 *
+	 * @param row
+	 *            The cells in the row
+	 * @return Whether the whole table was written out again, because the
+	 *         row didn't fit in the existing columns. The first row always
+	 *         writes out the whole table.
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public synchronized boolean append(String... row) throws IOException {
+		rows.add(row.clone());
+
+		boolean isWidened = widen(row);
+
+		if (isWidened) {
+			layout = new TableLayout(headerObjects, columnWidths);
+		}
+
+		if (isWidened || rows.size() == 1) {
+			writeTable(out);
+		} else {
+			layout.appendDataRow(rowBuilder, row);
+
+			out.append(rowBuilder);
+			rowBuilder.setLength(0);
+		}
+
+		if (out instanceof Flushable) {
+			((Flushable) out).flush();
+		}
+
+		return isWidened;
+	}
+
+	/**
+	 * Write out the bottom border of the table. Rows shouldn't be added
+	 * after this.
+	 *
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public synchronized void finish() throws IOException {
+		if (rows.isEmpty()) {
+			// Nothing has been written yet, so write the empty table
+			writeTable(out);
+		}
+
+		out.append(layout.getSeparatorLine());
+
+		if (out instanceof Flushable) {
+			((Flushable) out).flush();
+		}
+	}
+
+	/**
+	 * Get the number of rows in the table
+	 *
+	 * @return The number of rows in the table
+	 */
+	public synchronized int getRowCount() {
+		return rows.size();
+	}
+
+	/**
+	 * Get the whole table as it currently stands, including its bottom
+	 * border
+	 *
+	 * @return The table in string form
+	 */
+	public synchronized String getTable() {
+		StringBuilder tableBuilder = new StringBuilder(
+				layout.getSeparatorLine().length() * (rows.size() + 4));
+
+		try {
+			writeTable(tableBuilder);
+		} catch (IOException ioex) {
+			throw SimpleASCIITableImpl.unexpectedIOException(ioex);
+		}
+
+		return tableBuilder.append(layout.getSeparatorLine()).toString();
+	}
+
+	/*
+	 * Grow the column widths to fit a row. Returns whether any of them
+	 * grew.
+	 */
+	private boolean widen(String[] row) {
+		boolean isWidened = false;
+
+		if (row.length > columnWidths.length) {
+			columnWidths = Arrays.copyOf(columnWidths, row.length);
+
+			isWidened = true;
+		}
+
+		for (int i = 0; i < row.length; i++) {
+			int width = TableLayout.measure(row[i]);
+
+			if (width > columnWidths[i]) {
+				columnWidths[i] = width;
+
+				isWidened = true;
+			}
+		}
+
+		return isWidened;
+	}
+
+	/*
+	 * Write out every row of the table so far, without the bottom border
+	 */
+	private void writeTable(Appendable target) throws IOException {
+		String rowSeparator = layout.getSeparatorLine();
+
+		if (layout.hasHeader()) {
+			target.append(rowSeparator);
+			target.append(layout.getHeaderLine());
+		}
+
+		target.append(rowSeparator);
+
+		for (String[] row : rows) {
+			layout.appendDataRow(rowBuilder, row);
+
+			target.append(rowBuilder);
+			rowBuilder.setLength(0);
+		}
+	}
+}
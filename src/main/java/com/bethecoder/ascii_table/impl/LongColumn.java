@@ -0,0 +1,140 @@
+package com.bethecoder.ascii_table.impl;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * A column of longs, written out as plain digits.
+ *
+ * The values are not copied, so they shouldn't be changed while the
+ * column is being rendered.
+ *
+ * @author ben
+ *
+ */
+public class LongColumn extends TableColumn {
+	/*
+	 * The smallest number with each count of digits past the first
+	 */
+	private static final long[]	POWERS_OF_TEN	= createPowersOfTen();
+
+	// The values in the column
+	private final long[]		values;
+
+	/**
+	 * Create a new column of longs
+	 *
+	 * @param header
+	 *            The header of the column
+	 * @param values
+	 *            The values in the column
+	 */
+	public LongColumn(ASCIITableHeader header, long... values) {
+		super(header);
+
+		this.values = values;
+	}
+
+	/**
+	 * Create a new column of longs
+	 *
+	 * @param header
+	 *            The name of the column
+	 * @param values
+	 *            The values in the column
+	 */
+	public LongColumn(String header, long... values) {
+		this(new ASCIITableHeader(header), values);
+	}
+
+	/**
+	 * Count the digits in a non-negative number
+	 *
+	 * @param value
+	 *            The number to count the digits of
+	 * @return The number of digits in the number
+	 */
+	static int countDigits(long value) {
+		int digits = 1;
+
+		for (long power : POWERS_OF_TEN) {
+			if (value < power) {
+				break;
+			}
+
+			digits++;
+		}
+
+		return digits;
+	}
+
+	/**
+	 * Get the width of a number written as plain digits
+	 *
+	 * @param value
+	 *            The number to get the width of
+	 * @return The width of the number, including its sign
+	 */
+	static int measureWhole(long value) {
+		if (value >= 0) {
+			return countDigits(value);
+		} else if (value == Long.MIN_VALUE) {
+			// Can't be negated, but we know how long it is
+			return 20;
+		}
+
+		return 1 + countDigits(-value);
+	}
+
+	private static long[] createPowersOfTen() {
+		long[] powers = new long[18];
+
+		long power = 1;
+
+		for (int i = 0; i < powers.length; i++) {
+			power *= 10;
+
+			powers[i] = power;
+		}
+
+		return powers;
+	}
+
+	@Override
+	public void appendTo(StringBuilder builder, int row) {
+		builder.append(values[row]);
+	}
+
+	@Override
+	public int getWidth() {
+		if (values.length == 0) {
+			return 0;
+		}
+
+		/*
+		 * The widest cell is always either the largest or the smallest
+		 * value, so there's no need to measure the rest.
+		 */
+		long min = values[0];
+		long max = values[0];
+
+		for (long value : values) {
+			if (value < min) {
+				min = value;
+			} else if (value > max) {
+				max = value;
+			}
+		}
+
+		return Math.max(measureWhole(min), measureWhole(max));
+	}
+
+	@Override
+	public int measure(int row) {
+		return measureWhole(values[row]);
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+}
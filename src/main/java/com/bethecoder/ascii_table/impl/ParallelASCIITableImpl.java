@@ -0,0 +1,234 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.spec.IRenderListener;
+
+/**
+ * This implementation renders the same ASCII text as
+ * {@link SimpleASCIITableImpl}, but splits large tables into chunks of rows
+ * that are measured and rendered in parallel.
+ *
+ * @author ben
+ *
+ */
+public class ParallelASCIITableImpl extends SimpleASCIITableImpl {
+	/**
+	 * The number of rows handled by each parallel task. Tables smaller
+	 * than this are rendered sequentially.
+	 */
+	public static final int CHUNK_SIZE = 1024;
+
+	/*
+	 * Computes column widths for a range of rows, splitting the range in
+	 * half until it is small enough to measure directly.
+	 */
+	private static final class MeasureTask extends RecursiveTask<int[]> {
+		private static final long serialVersionUID = 1L;
+
+		private final String[][]	data;
+
+		private final int			from;
+		private final int			to;
+
+		public MeasureTask(String[][] data, int from, int to) {
+			this.data = data;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected int[] compute() {
+			if (to - from <= CHUNK_SIZE) {
+				return TableLayout.measureColumns(new int[0], data, from,
+						to);
+			}
+
+			int middle = (from + to) >>> 1;
+
+			MeasureTask left = new MeasureTask(data, from, middle);
+			left.fork();
+
+			int[] rightWidths = new MeasureTask(data, middle, to).compute();
+			int[] leftWidths = left.join();
+
+			return mergeWidths(leftWidths, rightWidths);
+		}
+	}
+
+	// The pool to run tasks in
+	private final ForkJoinPool pool;
+
+	/**
+	 * Create a new parallel table renderer
+	 *
+	 * @param pool
+	 *            The pool to run rendering tasks in
+	 */
+	public ParallelASCIITableImpl(ForkJoinPool pool) {
+		this(pool, IRenderListener.NO_OP);
+	}
+
+	/**
+	 * Create a new parallel table renderer that reports how long each
+	 * table takes to render
+	 *
+	 * @param pool
+	 *            The pool to run rendering tasks in
+	 * @param listener
+	 *            The listener to report each table to, or null not to
+	 *            report them
+	 */
+	public ParallelASCIITableImpl(ForkJoinPool pool,
+			IRenderListener listener) {
+		this(pool, listener, null);
+	}
+
+	/**
+	 * Create a new parallel table renderer that builds tables in buffers
+	 * from a pool
+	 *
+	 * @param pool
+	 *            The pool to run rendering tasks in
+	 * @param listener
+	 *            The listener to report each table to, or null not to
+	 *            report them
+	 * @param bufferPool
+	 *            The pool to take buffers from, or null to allocate a new
+	 *            buffer for each table
+	 */
+	public ParallelASCIITableImpl(ForkJoinPool pool,
+			IRenderListener listener, StringBuilderPool bufferPool) {
+		super(listener, bufferPool);
+
+		this.pool = pool;
+	}
+
+	private static int[] mergeWidths(int[] leftWidths, int[] rightWidths) {
+		int[] longer = leftWidths;
+		int[] shorter = rightWidths;
+
+		if (rightWidths.length > leftWidths.length) {
+			longer = rightWidths;
+			shorter = leftWidths;
+		}
+
+		for (int i = 0; i < shorter.length; i++) {
+			longer[i] = Math.max(longer[i], shorter[i]);
+		}
+
+		return longer;
+	}
+
+	@Override
+	protected TableLayout getLayout(ASCIITableHeader[] headerObjects,
+			String[][] data) {
+		if (data.length <= CHUNK_SIZE) {
+			return super.getLayout(headerObjects, data);
+		}
+
+		int[] columnWidths = pool
+				.invoke(new MeasureTask(data, 0, data.length));
+
+		return new TableLayout(headerObjects, columnWidths);
+	}
+
+	@Override
+	protected void appendDataRows(Appendable out, TableLayout layout,
+			String[][] data, int from, int to) throws IOException {
+		if (to - from <= CHUNK_SIZE) {
+			super.appendDataRows(out, layout, data, from, to);
+
+			return;
+		}
+
+		appendChunks(out, layout, data, from, to, false);
+	}
+
+	@Override
+	int appendASCIIDataRows(StringBuilder builder, TableLayout layout,
+			String[][] data, int from, int to) {
+		if (to - from <= CHUNK_SIZE) {
+			return super.appendASCIIDataRows(builder, layout, data, from, to);
+		}
+
+		try {
+			return appendChunks(builder, layout, data, from, to, true);
+		} catch (IOException ioex) {
+			throw unexpectedIOException(ioex);
+		}
+	}
+
+	/*
+	 * Render the rows [from, to) in chunks, in parallel, and write them
+	 * out in order. When guessing the rows are all ASCII, this stops at
+	 * the first chunk with a row that isn't, and returns where that chunk
+	 * starts.
+	 */
+	private int appendChunks(Appendable out, final TableLayout layout,
+			final String[][] data, int from, int to,
+			final boolean isGuessingASCII) throws IOException {
+		/*
+		 * Only keep a few chunks per worker in flight at once, so we don't
+		 * end up holding a second copy of the whole table in chunk buffers.
+		 */
+		int window = Math.max(1, pool.getParallelism() * 2);
+
+		List<ForkJoinTask<StringBuilder>> chunks = new ArrayList<>(window);
+
+		for (int start = from; start < to; start += CHUNK_SIZE * window) {
+			for (int i = 0; i < window; i++) {
+				final int chunkFrom = start + i * CHUNK_SIZE;
+
+				if (chunkFrom >= to) {
+					break;
+				}
+
+				final int chunkTo = Math.min(chunkFrom + CHUNK_SIZE, to);
+
+				chunks.add(pool.submit(() -> {
+					StringBuilder chunkBuilder = new StringBuilder(
+							layout.getSeparatorLine().length()
+									* (chunkTo - chunkFrom));
+
+					for (int row = chunkFrom; row < chunkTo; row++) {
+						if (!isGuessingASCII) {
+							layout.appendDataRow(chunkBuilder, data[row]);
+						} else if (!layout.appendASCIIDataRow(chunkBuilder,
+								data[row])) {
+							return null;
+						}
+					}
+
+					return chunkBuilder;
+				}));
+			}
+
+			// Write the chunks out in the order they were submitted
+			for (int i = 0; i < chunks.size(); i++) {
+				StringBuilder chunkBuilder = chunks.get(i).join();
+
+				if (chunkBuilder == null) {
+					// Don't start the chunks after it that haven't yet
+					for (int j = i + 1; j < chunks.size(); j++) {
+						chunks.get(j).cancel(false);
+					}
+
+					return start + i * CHUNK_SIZE;
+				}
+
+				out.append(chunkBuilder);
+			}
+
+			chunks.clear();
+		}
+
+		return to;
+	}
+}
@@ -0,0 +1,272 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+import com.bethecoder.ascii_table.spec.IRenderListener;
+import com.bethecoder.ascii_table.spec.RenderPhaseValues;
+
+/**
+ * Times and counts the rendering of one table, and reports it to a
+ * listener and the flight recorder once the table is done.
+ *
+ * Renderers only create one of these when their listener or the
+ * {@link TableRenderEvent} is enabled, and check for null at each phase
+ * boundary, so while neither is in use nothing reads the clock. On
+ * runtimes without the flight recorder, only the listener is reported
+ * to.
+ *
+ * @author ben
+ *
+ */
+final class RenderMetrics {
+	private static final RenderPhaseValues[] PHASES = RenderPhaseValues
+			.values();
+
+	/*
+	 * Counts the characters written to an output that isn't a
+	 * StringBuilder
+	 */
+	private static final class CountingAppendable
+			implements Appendable, Flushable {
+		private final Appendable	out;
+
+		// The number of characters written so far
+		private long				count;
+
+		public CountingAppendable(Appendable out) {
+			this.out = out;
+		}
+
+		@Override
+		public Appendable append(char c) throws IOException {
+			out.append(c);
+			count++;
+
+			return this;
+		}
+
+		@Override
+		public Appendable append(CharSequence csq) throws IOException {
+			// Appendables write null out as "null"
+			CharSequence text = csq == null ? "null" : csq;
+
+			out.append(text);
+			count += text.length();
+
+			return this;
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end)
+				throws IOException {
+			CharSequence text = csq == null ? "null" : csq;
+
+			out.append(text, start, end);
+			count += end - start;
+
+			return this;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (out instanceof Flushable) {
+				((Flushable) out).flush();
+			}
+		}
+	}
+
+	// The listener to report to, or null if it isn't enabled
+	private final IRenderListener	listener;
+
+	// The event to record, or null if it isn't enabled
+	private final TableRenderEvent	event;
+
+	// The class of the renderer
+	private final Class<?>			renderer;
+
+	// The time spent in each phase so far
+	private final long[]			phaseNanos	= new long[PHASES.length];
+
+	// When the current phase started
+	private long					phaseStart;
+
+	private long					rows;
+	private int						columns;
+	private long					cells;
+	private long					formatCalls;
+
+	// The output, if it is a StringBuilder, and its length beforehand
+	private StringBuilder			builder;
+	private int						builderStart;
+
+	// The output, if it had to be wrapped to count what's written
+	private CountingAppendable		counter;
+
+	private RenderMetrics(IRenderListener listener, TableRenderEvent event,
+			Class<?> renderer) {
+		this.listener = listener;
+		this.event = event;
+		this.renderer = renderer;
+
+		if (event != null) {
+			event.begin();
+		}
+
+		phaseStart = System.nanoTime();
+	}
+
+	/**
+	 * Start timing a table, if the listener or the flight recorder wants
+	 * to hear about it
+	 *
+	 * @param listener
+	 *            The listener to report to
+	 * @param renderer
+	 *            The class of the renderer, to record with the table
+	 * @return The metrics for the table, or null if neither the listener
+	 *         nor the event is enabled
+	 */
+	static RenderMetrics start(IRenderListener listener,
+			Class<?> renderer) {
+		TableRenderEvent event = null;
+
+		// The JIT removes this when the event is off and it doesn't escape
+		if (FlightRecorderSupport.IS_AVAILABLE) {
+			event = new TableRenderEvent();
+		}
+
+		boolean isListening = listener.isEnabled();
+		boolean isRecording = event != null && event.isEnabled();
+
+		if (!isListening && !isRecording) {
+			return null;
+		}
+
+		return new RenderMetrics(isListening ? listener : null,
+				isRecording ? event : null, renderer);
+	}
+
+	/**
+	 * Count the cells in the rows [from, to) of some data
+	 *
+	 * @param data
+	 *            The data
+	 * @param from
+	 *            The first row to count
+	 * @param to
+	 *            The row after the last one to count
+	 * @return The number of cells in the rows
+	 */
+	static long countCells(String[][] data, int from, int to) {
+		long cellCount = 0;
+
+		for (int i = from; i < to; i++) {
+			cellCount += data[i].length;
+		}
+
+		return cellCount;
+	}
+
+	/**
+	 * Add to the size of the table
+	 *
+	 * @param rowCount
+	 *            The number of rows to add
+	 * @param cellCount
+	 *            The number of cells in those rows
+	 * @param formatCallCount
+	 *            The number of cells that were formatted by the source
+	 */
+	void count(long rowCount, long cellCount, long formatCallCount) {
+		rows += rowCount;
+		cells += cellCount;
+		formatCalls += formatCallCount;
+	}
+
+	/**
+	 * Record the number of columns in the table
+	 *
+	 * @param columnCount
+	 *            The number of columns
+	 */
+	void setColumns(int columnCount) {
+		columns = columnCount;
+	}
+
+	/**
+	 * Add the time since the last phase ended to a phase
+	 *
+	 * @param phase
+	 *            The phase that just ended
+	 */
+	void endPhase(RenderPhaseValues phase) {
+		long now = System.nanoTime();
+
+		phaseNanos[phase.ordinal()] += now - phaseStart;
+
+		phaseStart = now;
+	}
+
+	/**
+	 * Report the table to the listener, and record its event
+	 */
+	void finish() {
+		long chars = 0;
+
+		if (builder != null) {
+			chars = builder.length() - builderStart;
+		} else if (counter != null) {
+			chars = counter.count;
+		}
+
+		if (listener != null) {
+			for (RenderPhaseValues phase : PHASES) {
+				listener.phaseFinished(phase, phaseNanos[phase.ordinal()]);
+			}
+
+			listener.tableFinished(rows, cells, chars, formatCalls);
+		}
+
+		if (event != null) {
+			event.end();
+
+			if (event.shouldCommit()) {
+				event.renderer = renderer;
+				event.rows = rows;
+				event.columns = columns;
+				event.outputChars = chars;
+				event.extractTime = phaseNanos[RenderPhaseValues.PHASE_EXTRACT
+						.ordinal()];
+				event.measureTime = phaseNanos[RenderPhaseValues.PHASE_MEASURE
+						.ordinal()];
+				event.emitTime = phaseNanos[RenderPhaseValues.PHASE_EMIT
+						.ordinal()];
+
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Get an output to render to that counts the characters written to
+	 * the given output. StringBuilders are used as they are, and counted
+	 * by how much they grow.
+	 *
+	 * @param out
+	 *            The output the table is for
+	 * @return The output to write the table to
+	 */
+	Appendable track(Appendable out) {
+		if (out instanceof StringBuilder) {
+			builder = (StringBuilder) out;
+			builderStart = builder.length();
+
+			return out;
+		}
+
+		counter = new CountingAppendable(out);
+
+		return counter;
+	}
+}
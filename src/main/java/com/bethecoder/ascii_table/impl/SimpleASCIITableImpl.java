@@ -15,6 +15,9 @@
  */
 package com.bethecoder.ascii_table.impl;
 
+import java.io.Flushable;
+import java.io.IOException;
+import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -24,377 +27,1000 @@ import com.bethecoder.ascii_table.ASCIITableHeader;
 import com.bethecoder.ascii_table.spec.AlignmentValues;
 import com.bethecoder.ascii_table.spec.IASCIITable;
 import com.bethecoder.ascii_table.spec.IASCIITableAware;
+import com.bethecoder.ascii_table.spec.IASCIITableRowSource;
+import com.bethecoder.ascii_table.spec.IASCIITableTruncationAware;
+import com.bethecoder.ascii_table.spec.IRenderListener;
+import com.bethecoder.ascii_table.spec.OverflowValues;
+import com.bethecoder.ascii_table.spec.RenderPhaseValues;
 
 /**
  * This implementation simply renders the tables as ASCII text with ASCII
  * bordering
  * 
+ * Renderers hold no state from one table to the next, so a single
+ * instance can be shared by any number of threads, as long as its
+ * listener and buffer pool can be too.
+ * 
  * @author K Venkata Sudhakar (kvenkatasudhakar@gmail.com)
  * @version 1.0
  *
  */
 public class SimpleASCIITableImpl implements IASCIITable {
+	/**
+	 * The default number of rows to look at when working out column widths
+	 * for a streamed table
+	 */
+	public static final int DEFAULT_SAMPLE_SIZE = 100;
+
+	// The listener to report the cost of each table to
+	private final IRenderListener	listener;
+
+	// The pool to take buffers from, or null to allocate new ones
+	private final StringBuilderPool	bufferPool;
+
+	/*
+	 * Whether tables built in a buffer are written on the guess that they
+	 * are all ASCII. Subclasses from elsewhere may lay out or write rows
+	 * their own way, so they always go through getLayout and
+	 * appendDataRows.
+	 */
+	private final boolean			isGuessingASCII;
+
+	/**
+	 * Create a new ASCII table renderer
+	 */
+	public SimpleASCIITableImpl() {
+		this(IRenderListener.NO_OP);
+	}
 
-	private static int getColumnCount(String[] header, String[][] data) {
-		int columnCount = 0;
+	/**
+	 * Create a new ASCII table renderer that reports how long each table
+	 * takes to render
+	 * 
+	 * @param listener
+	 *            The listener to report each table to, or null not to
+	 *            report them
+	 */
+	public SimpleASCIITableImpl(IRenderListener listener) {
+		this(listener, null);
+	}
 
-		for (int i = 0; i < data.length; i++) {
-			columnCount = Math.max(data[i].length, columnCount);
+	/**
+	 * Create a new ASCII table renderer that builds tables in buffers from
+	 * a pool, so that once the pool has warmed up, rendering a table to a
+	 * string allocates little more than the string itself.
+	 * 
+	 * @param listener
+	 *            The listener to report each table to, or null not to
+	 *            report them
+	 * @param bufferPool
+	 *            The pool to take buffers from, or null to allocate a new
+	 *            buffer for each table
+	 */
+	public SimpleASCIITableImpl(IRenderListener listener,
+			StringBuilderPool bufferPool) {
+		if (listener == null) {
+			this.listener = IRenderListener.NO_OP;
+		} else {
+			this.listener = listener;
 		}
 
-		columnCount = Math.max(header.length, columnCount);
+		this.bufferPool = bufferPool;
 
-		return columnCount;
+		isGuessingASCII = getClass() == SimpleASCIITableImpl.class
+				|| getClass() == ParallelASCIITableImpl.class;
 	}
 
-	private static String getFormattedData(int maxLength, String dat,
-			AlignmentValues align) {
-		String data = dat;
-		
-		if (data.length() > maxLength) {
-			return data;
+	/*
+	 * Tell the reader about any rows the source left out
+	 */
+	private static void appendTruncationFooter(Appendable out,
+			Object source) throws IOException {
+		if (!(source instanceof IASCIITableTruncationAware)) {
+			return;
 		}
 
-		boolean isSpacingLeft = true;
+		IASCIITableTruncationAware truncation = (IASCIITableTruncationAware) source;
 
-		while (data.length() < maxLength) {
-			switch (align) {
-				case ALIGN_CENTER:
-					if (isSpacingLeft) {
-						data = " " + data;
-						isSpacingLeft = false;
-					} else {
-						data = data + " ";
-						isSpacingLeft = true;
-					}
+		if (!truncation.isTruncated()) {
+			return;
+		}
 
-					break;
-				case ALIGN_LEFT:
-					data = data + " ";
-					break;
-				case ALIGN_RIGHT:
-					data = " " + data;
-					break;
-				default:
-					break;
-			}
+		long omittedRows = truncation.getOmittedRowCount();
+
+		out.append("... ");
+
+		if (omittedRows >= 0) {
+			out.append(NumberFormat.getIntegerInstance().format(omittedRows));
+			out.append(' ');
 		}
 
-		return data;
+		if (omittedRows == 1) {
+			out.append("more row not shown\n");
+		} else {
+			out.append("more rows not shown\n");
+		}
 	}
 
-	private static String[] getHeaders(ASCIITableHeader[] headerObjects) {
-		if (headerObjects != null && headerObjects.length > 0) {
-			String[] headers = new String[headerObjects.length];
+	private static <ContainedType> String[] formatRow(
+			IASCIITableRowSource<ContainedType> rowSource,
+			ASCIITableHeader[] headerObjects, int rowIndex,
+			List<ContainedType> rowData) {
+		String[] row = new String[rowData.size()];
+
+		for (int j = 0; j < row.length; j++) {
+			ASCIITableHeader columnHeader = null;
 
-			for (int i = 0; i < headerObjects.length; i++) {
-				headers[i] = headerObjects[i].getHeaderName();
+			if (j < headerObjects.length) {
+				columnHeader = headerObjects[j];
 			}
 
-			return headers;
+			ContainedType cell = rowData.get(j);
+
+			row[j] = rowSource.formatData(columnHeader, rowIndex, j, cell);
+
+			if (row[j] == null) {
+				row[j] = String.valueOf(cell);
+			}
 		}
 
-		return new String[0];
+		return row;
 	}
 
-	private static List<Integer> getMaximumColumnLengths(int columnCount,
-			String[] header, String[][] data) {
-		List<Integer> maximumColumnLengths = new ArrayList<>(columnCount);
-		List<String> columnData = null;
+	private static void checkData(String[][] data) {
+		if (data == null || data.length == 0) {
+			throw new IllegalArgumentException(
+					"Please provide valid data : "
+							+ Arrays.toString(data));
+		}
+	}
 
-		int maximumLength;
+	private static ASCIITableHeader[] getHeaderObjects(String[] headers,
+			AlignmentValues headerAlign, AlignmentValues dataAlign) {
+		ASCIITableHeader[] headerObjects = new ASCIITableHeader[0];
 
-		for (int i = 0; i < columnCount; i++) {
-			columnData = new ArrayList<>();
+		if (headers != null && headers.length > 0) {
+			headerObjects = new ASCIITableHeader[headers.length];
 
-			if (header != null && i < header.length) {
-				columnData.add(header[i]);
+			for (int i = 0; i < headers.length; i++) {
+				headerObjects[i] = new ASCIITableHeader(headers[i],
+						dataAlign, headerAlign);
 			}
+		}
 
-			for (int j = 0; j < data.length; j++) {
-				if (i < data[j].length) {
-					columnData.add(data[j][i]);
-				} else {
-					columnData.add("");
-				}
-			}
+		return headerObjects;
+	}
 
-			maximumLength = getMaximumItemLength(columnData);
-			maximumColumnLengths.add(maximumLength);
+	/*
+	 * Make sure a buffer can take the rest of a table without growing
+	 * again partway through.
+	 */
+	private static void reserve(Appendable out, long length) {
+		if (!(out instanceof StringBuilder)) {
+			return;
 		}
 
-		return maximumColumnLengths;
-	}
+		StringBuilder builder = (StringBuilder) out;
 
-	private static int getMaximumItemLength(List<String> columnData) {
-		int maximumLength = 0;
+		long capacity = builder.length() + length;
 
-		for (int i = 0; i < columnData.size(); i++) {
-			maximumLength = Math.max(columnData.get(i).length(),
-					maximumLength);
+		// Leave room for the header words some VMs put in arrays
+		if (capacity > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Table is too large to build as"
+					+ " a string (" + length + " characters); render it to"
+					+ " a stream with renderTo instead");
 		}
 
-		return maximumLength;
+		builder.ensureCapacity((int) capacity);
+	}
+
+	/*
+	 * Rendering into a StringBuilder or System.out never actually fails,
+	 * so any IOException we get from them is a bug.
+	 */
+	static IllegalStateException unexpectedIOException(IOException ioex) {
+		IllegalStateException isex = new IllegalStateException(
+				"Unexpected failure writing table");
+
+		isex.initCause(ioex);
+
+		return isex;
+	}
+
+	@Override
+	public String getTable(ASCIITableHeader[] headerObjects,
+			String[][] data) {
+		StringBuilder tableBuilder = StringBuilderPool
+				.acquireFrom(bufferPool);
+
+		try {
+			renderTo(tableBuilder, headerObjects, data);
+
+			return tableBuilder.toString();
+		} catch (IOException ioex) {
+			throw unexpectedIOException(ioex);
+		} finally {
+			StringBuilderPool.releaseTo(bufferPool, tableBuilder);
+		}
 	}
 
-	private static String getRowDataBuffer(int columnCount,
-			List<Integer> maximumColumnLengths, String[] row,
-			ASCIITableHeader[] headerObjects, boolean isHeader) {
-		StringBuilder rowBuilder = new StringBuilder();
-		String formattedData = null;
+	@Override
+	public void renderTo(Appendable out, ASCIITableHeader[] headerObjects,
+			String[][] data) throws IOException {
+		checkData(data);
+
+		RenderMetrics metrics = RenderMetrics.start(listener, getClass());
+
+		if (metrics != null) {
+			out = metrics.track(out);
+		}
+
+		TableLayout layout;
 
-		for (int i = 0; i < columnCount; i++) {
-			AlignmentValues align;
+		if (isGuessingASCII && out instanceof StringBuilder) {
+			layout = writeGuessingASCII((StringBuilder) out,
+					TableLayout.forASCIIData(headerObjects, data),
+					headerObjects, data, metrics);
+		} else {
+			layout = getLayout(headerObjects, data);
 
-			if (isHeader) {
-				align = DEFAULT_HEADER_ALIGN;
-			} else {
-				align = DEFAULT_DATA_ALIGN;
+			if (metrics != null) {
+				metrics.endPhase(RenderPhaseValues.PHASE_MEASURE);
 			}
 
-			if (headerObjects != null && i < headerObjects.length) {
-				if (isHeader) {
-					align = headerObjects[i].getHeaderAlign();
-				} else {
-					align = headerObjects[i].getDataAlign();
-				}
+			writeTable(out, layout, data, 0, data.length);
+		}
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			metrics.count(data.length,
+					RenderMetrics.countCells(data, 0, data.length), 0);
+			metrics.setColumns(layout.getColumnCount());
+			metrics.finish();
+		}
+	}
+
+	/*
+	 * Write the rows [from, to) of a table to a buffer, on the guess that
+	 * they are all ASCII, stopping at the first row that isn't. Returns
+	 * the row it stopped at.
+	 */
+	int appendASCIIDataRows(StringBuilder builder, TableLayout layout,
+			String[][] data, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (!layout.appendASCIIDataRow(builder, data[i])) {
+				return i;
 			}
+		}
+
+		return to;
+	}
+
+	/*
+	 * Write a table to a buffer on the guess that every cell is ASCII, so
+	 * the characters of each cell are only looked at once, as the cell is
+	 * written. The guessed layout only looks at the lengths of the cells.
+	 * If a cell turns out not to be ASCII, the table is measured properly,
+	 * and the rows written so far are kept if the columns come out just
+	 * as wide, or else thrown away. Returns the layout the table was
+	 * written with.
+	 */
+	private TableLayout writeGuessingASCII(StringBuilder builder,
+			TableLayout guess, ASCIITableHeader[] headerObjects,
+			String[][] data, RenderMetrics metrics) throws IOException {
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_MEASURE);
+		}
 
-			if (i < row.length) {
-				formattedData = row[i];
-			} else {
-				formattedData = "";
+		int tableStart = builder.length();
+
+		reserve(builder, guess.getRenderedLength(data.length));
+
+		String rowSeparator = guess.getSeparatorLine();
+
+		if (guess.hasHeader()) {
+			builder.append(rowSeparator);
+			builder.append(guess.getHeaderLine());
+		}
+
+		builder.append(rowSeparator);
+
+		int stop = appendASCIIDataRows(builder, guess, data, 0, data.length);
+
+		if (stop == data.length) {
+			builder.append(rowSeparator);
+
+			return guess;
+		}
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+		}
+
+		TableLayout layout = getLayout(headerObjects, data);
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_MEASURE);
+		}
+
+		if (Arrays.equals(layout.getColumnWidths(),
+				guess.getColumnWidths())) {
+			// The same widths give the same borders and header
+			appendDataRows(builder, layout, data, stop, data.length);
+
+			builder.append(rowSeparator);
+		} else {
+			builder.setLength(tableStart);
+
+			writeTable(builder, layout, data, 0, data.length);
+		}
+
+		return layout;
+	}
+
+	/**
+	 * Work out the layout needed to fit the given headers and data.
+	 * 
+	 * @param headerObjects
+	 *            The headers of the table
+	 * @param data
+	 *            The data in the table
+	 * @return A layout wide enough for every cell in the table
+	 */
+	protected TableLayout getLayout(ASCIITableHeader[] headerObjects,
+			String[][] data) {
+		return TableLayout.forData(headerObjects, data);
+	}
+
+	/**
+	 * Work out how many characters the given table will take up when
+	 * rendered, without rendering it.
+	 * 
+	 * This is exact as long as every character takes up one column; see
+	 * {@link TableLayout#getRenderedLength(int)}. It still has to measure
+	 * every cell. To avoid measuring twice, callers checking against a
+	 * budget can get the layout from
+	 * {@link TableLayout#forData(ASCIITableHeader[], String[][])}, check
+	 * {@link #estimateSize(TableLayout, int)}, and then render with
+	 * {@link #renderTo(Appendable, TableLayout, String[][])}.
+	 * 
+	 * @param headerObjects
+	 *            The headers of the table
+	 * @param data
+	 *            The data in the table
+	 * @return The number of characters in the rendered table
+	 */
+	public long estimateSize(ASCIITableHeader[] headerObjects,
+			String[][] data) {
+		checkData(data);
+
+		return estimateSize(getLayout(headerObjects, data), data.length);
+	}
+
+	/**
+	 * Work out how many characters a columnar table will take up when
+	 * rendered, without rendering it.
+	 * 
+	 * @param table
+	 *            The table to render
+	 * @return The number of characters in the rendered table
+	 */
+	public long estimateSize(ColumnarTable table) {
+		return estimateSize(table.getLayout(), table.getRowCount());
+	}
+
+	/**
+	 * Work out how many characters a table with a given layout will
+	 * take up when rendered, as long as its cells fit in the layout.
+	 * 
+	 * @param layout
+	 *            The layout of the table
+	 * @param rowCount
+	 *            The number of data rows in the table
+	 * @return The number of characters in the rendered table
+	 */
+	public long estimateSize(TableLayout layout, int rowCount) {
+		return layout.getRenderedLength(rowCount);
+	}
+
+	/**
+	 * Write the rows [from, to) of a table, in order, to the provided
+	 * output.
+	 * 
+	 * @param out
+	 *            The place to write the rows to
+	 * @param layout
+	 *            The layout of the table
+	 * @param data
+	 *            The data in the table
+	 * @param from
+	 *            The first row to write
+	 * @param to
+	 *            The row after the last one to write
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	protected void appendDataRows(Appendable out, TableLayout layout,
+			String[][] data, int from, int to) throws IOException {
+		/*
+		 * Rows are built in a single reused buffer. If we're writing to a
+		 * StringBuilder anyways, just write into it directly.
+		 */
+		if (out instanceof StringBuilder) {
+			StringBuilder tableBuilder = (StringBuilder) out;
+
+			for (int i = from; i < to; i++) {
+				layout.appendDataRow(tableBuilder, data[i]);
 			}
+		} else {
+			StringBuilder rowBuilder = StringBuilderPool.acquireFrom(
+					bufferPool, layout.getSeparatorLine().length());
 
-			formattedData = "| "
-					+ getFormattedData(maximumColumnLengths.get(i),
-							formattedData, align)
-					+ " ";
+			for (int i = from; i < to; i++) {
+				layout.appendDataRow(rowBuilder, data[i]);
 
-			if (i + 1 == columnCount) {
-				formattedData += "|";
+				out.append(rowBuilder);
+				rowBuilder.setLength(0);
 			}
 
-			rowBuilder.append(formattedData);
+			StringBuilderPool.releaseTo(bufferPool, rowBuilder);
 		}
+	}
 
-		return rowBuilder.append("\n").toString();
+	/**
+	 * Create the ASCII table as a string, using a precomputed layout.
+	 * 
+	 * Cells wider than their column in the layout are not truncated, and
+	 * will push the borders of their row out of line. Use
+	 * {@link TableLayout#widen(String[][])} to make sure the layout fits
+	 * the data first.
+	 * 
+	 * @param layout
+	 *            The layout of the table
+	 * @param data
+	 *            The data in the table
+	 * @return The table in string form
+	 */
+	public String getTable(TableLayout layout, String[][] data) {
+		StringBuilder tableBuilder = StringBuilderPool
+				.acquireFrom(bufferPool);
+
+		try {
+			renderTo(tableBuilder, layout, data);
+
+			return tableBuilder.toString();
+		} catch (IOException ioex) {
+			throw unexpectedIOException(ioex);
+		} finally {
+			StringBuilderPool.releaseTo(bufferPool, tableBuilder);
+		}
 	}
 
 	/**
-	 * Each string item rendering requires the border and a space on both
-	 * sides.
+	 * Render the ASCII table to the provided output, using a precomputed
+	 * layout.
 	 * 
-	 * 12 3 12 3 12 34 +----- +-------- +------+ abc venkat last
+	 * Cells wider than their column in the layout are not truncated, and
+	 * will push the borders of their row out of line. Use
+	 * {@link TableLayout#widen(String[][])} to make sure the layout fits
+	 * the data first.
 	 * 
-	 * @param columnCount
-	 *            The number of columns to render
-	 * @param maximumColumnLengths
-	 *            The maximum length of each column
+	 * @param out
+	 *            The place to write the table to
+	 * @param layout
+	 *            The layout of the table
 	 * @param data
-	 *            The data being stored
-	 * @return The row seperating the lines
+	 *            The data in the table
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
 	 */
-	private static String getRowSeparatorLine(int columnCount,
-			List<Integer> maximumColumnLengths, String[][] data) {
-		StringBuilder rowBuilder = new StringBuilder();
-		int columnWidth = 0;
-
-		for (int i = 0; i < columnCount; i++) {
-			columnWidth = maximumColumnLengths.get(i) + 3;
-
-			for (int j = 0; j < columnWidth; j++) {
-				if (j == 0) {
-					rowBuilder.append("+");
-				} else if ((i + 1 == columnCount
-						&& j + 1 == columnWidth)) {
-					// for last column close the border
-					rowBuilder.append("-+");
-				} else {
-					rowBuilder.append("-");
-				}
-			}
+	public void renderTo(Appendable out, TableLayout layout,
+			String[][] data) throws IOException {
+		if (data == null) {
+			throw new IllegalArgumentException(
+					"Please provide valid data : null");
 		}
 
-		return rowBuilder.append("\n").toString();
+		renderTo(out, layout, data, 0, data.length);
 	}
 
-	@Override
-	public String getTable(ASCIITableHeader[] headerObjects,
-			String[][] data) {
-		if (data == null || data.length == 0) {
+	/**
+	 * Render the rows [from, to) of an ASCII table to the provided output,
+	 * as a table of their own, using a precomputed layout.
+	 * 
+	 * Since the layout doesn't depend on which rows are rendered, this
+	 * takes time proportional to the number of rows rendered, and every
+	 * range of the same table lines up with every other.
+	 * 
+	 * @param out
+	 *            The place to write the table to
+	 * @param layout
+	 *            The layout of the table
+	 * @param data
+	 *            The data in the table
+	 * @param from
+	 *            The first row to render
+	 * @param to
+	 *            The row after the last one to render
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public void renderTo(Appendable out, TableLayout layout,
+			String[][] data, int from, int to) throws IOException {
+		if (data == null) {
 			throw new IllegalArgumentException(
-					"Please provide valid data : "
-							+ Arrays.toString(data));
+					"Please provide valid data : null");
+		}
+
+		if (from < 0 || to > data.length || from > to) {
+			throw new IndexOutOfBoundsException("Invalid row range [" + from
+					+ ", " + to + ") for " + data.length + " rows");
+		}
+
+		RenderMetrics metrics = RenderMetrics.start(listener, getClass());
+
+		if (metrics != null) {
+			out = metrics.track(out);
+		}
+
+		writeTable(out, layout, data, from, to);
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			metrics.count(to - from, RenderMetrics.countCells(data, from, to),
+					0);
+			metrics.setColumns(layout.getColumnCount());
+			metrics.finish();
 		}
+	}
+
+	/*
+	 * Write the rows [from, to) of a table to the output, with its borders
+	 * and header
+	 */
+	private void writeTable(Appendable out, TableLayout layout,
+			String[][] data, int from, int to) throws IOException {
+		reserve(out, layout.getRenderedLength(to - from));
+
+		String rowSeparator = layout.getSeparatorLine();
 
 		/**
-		 * Buffer holding the table string
+		 * 1. Header lines, if there are any
 		 */
-		StringBuilder tableBuilder = new StringBuilder();
+		if (layout.hasHeader()) {
+			out.append(rowSeparator);
+			out.append(layout.getHeaderLine());
+		}
 
 		/**
-		 * Get maximum number of columns across all rows
+		 * 2. Row data lines
 		 */
-		String[] header = getHeaders(headerObjects);
+		out.append(rowSeparator);
 
-		int columnCount = getColumnCount(header, data);
+		appendDataRows(out, layout, data, from, to);
 
 		/**
-		 * Get maximum length of data in each column
+		 * 3. Row line
 		 */
-		List<Integer> maximumColumnLengths = getMaximumColumnLengths(
-				columnCount, header, data);
+		out.append(rowSeparator);
+	}
 
-		/**
-		 * Check for the existence of headers
-		 */
-		if (header != null && header.length > 0) {
-			/**
-			 * 1. Row line
-			 */
-			tableBuilder.append(getRowSeparatorLine(columnCount,
-					maximumColumnLengths, data));
+	/**
+	 * Create the ASCII table as a string from a columnar table.
+	 * 
+	 * @param table
+	 *            The table to render
+	 * @return The table in string form
+	 */
+	public String getTable(ColumnarTable table) {
+		StringBuilder tableBuilder = StringBuilderPool
+				.acquireFrom(bufferPool);
+
+		try {
+			renderTo(tableBuilder, table);
+
+			return tableBuilder.toString();
+		} catch (IOException ioex) {
+			throw unexpectedIOException(ioex);
+		} finally {
+			StringBuilderPool.releaseTo(bufferPool, tableBuilder);
+		}
+	}
 
-			/**
-			 * 2. Header line
-			 */
-			tableBuilder.append(getRowDataBuffer(columnCount,
-					maximumColumnLengths, header, headerObjects, true));
+	/**
+	 * Render a columnar table to the provided output. Column widths are
+	 * worked out from the columns without formatting any cells, and cells
+	 * are written straight into the row being built.
+	 * 
+	 * @param out
+	 *            The place to write the table to
+	 * @param table
+	 *            The table to render
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public void renderTo(Appendable out, ColumnarTable table)
+			throws IOException {
+		RenderMetrics metrics = RenderMetrics.start(listener, getClass());
+
+		if (metrics != null) {
+			out = metrics.track(out);
 		}
 
-		/**
-		 * 3. Row data lines
-		 */
-		tableBuilder.append(getRowSeparatorLine(columnCount,
-				maximumColumnLengths, data));
-
-		String[] rowData = null;
-
-		// Build row data buffer by iterating through all rows
-		for (int i = 0; i < data.length; i++) {
-			// Build cell data in each row
-			rowData = new String[columnCount];
-
-			for (int j = 0; j < columnCount; j++) {
-				if (j < data[i].length) {
-					rowData[j] = data[i][j];
-				} else {
-					rowData[j] = "";
-				}
+		TableLayout layout = table.getLayout();
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_MEASURE);
+		}
+
+		reserve(out, layout.getRenderedLength(table.getRowCount()));
+
+		String rowSeparator = layout.getSeparatorLine();
+
+		if (layout.hasHeader()) {
+			out.append(rowSeparator);
+			out.append(layout.getHeaderLine());
+		}
+
+		out.append(rowSeparator);
+
+		int rowCount = table.getRowCount();
+
+		if (out instanceof StringBuilder) {
+			StringBuilder tableBuilder = (StringBuilder) out;
+
+			for (int i = 0; i < rowCount; i++) {
+				layout.appendDataRow(tableBuilder, table, i);
 			}
+		} else {
+			StringBuilder rowBuilder = StringBuilderPool
+					.acquireFrom(bufferPool, rowSeparator.length());
+
+			for (int i = 0; i < rowCount; i++) {
+				layout.appendDataRow(rowBuilder, table, i);
 
-			tableBuilder.append(getRowDataBuffer(columnCount,
-					maximumColumnLengths, rowData, headerObjects, false));
+				out.append(rowBuilder);
+				rowBuilder.setLength(0);
+			}
+
+			StringBuilderPool.releaseTo(bufferPool, rowBuilder);
 		}
 
-		/**
-		 * 4. Row line
+		out.append(rowSeparator);
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			metrics.count(rowCount, (long) rowCount * table.getColumnCount(),
+					0);
+			metrics.setColumns(table.getColumnCount());
+			metrics.finish();
+		}
+	}
+
+	/**
+	 * Render a table from a source of rows, reading and writing one row at
+	 * a time so that memory use doesn't depend on the number of rows.
+	 * 
+	 * Column widths are worked out from the first
+	 * {@link #DEFAULT_SAMPLE_SIZE} rows, unless the source declares them.
+	 * Cells that don't fit are truncated.
+	 * 
+	 * @param <ContainedType>
+	 *            The type of data in the table
+	 * 
+	 * @param out
+	 *            The place to write the table to
+	 * @param rowSource
+	 *            The source for table rows
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public <ContainedType> void renderTo(Appendable out,
+			IASCIITableRowSource<ContainedType> rowSource)
+			throws IOException {
+		renderTo(out, rowSource, DEFAULT_SAMPLE_SIZE,
+				OverflowValues.OVERFLOW_TRUNCATE);
+	}
+
+	/**
+	 * Render a table from a source of rows, reading and writing one row at
+	 * a time so that memory use doesn't depend on the number of rows.
+	 * 
+	 * @param <ContainedType>
+	 *            The type of data in the table
+	 * 
+	 * @param out
+	 *            The place to write the table to
+	 * @param rowSource
+	 *            The source for table rows
+	 * @param sampleSize
+	 *            The number of rows to look at to work out column widths,
+	 *            if the source doesn't declare them
+	 * @param overflow
+	 *            What to do with cells that are wider than their column
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public <ContainedType> void renderTo(Appendable out,
+			IASCIITableRowSource<ContainedType> rowSource, int sampleSize,
+			OverflowValues overflow) throws IOException {
+		RenderMetrics metrics = RenderMetrics.start(listener, getClass());
+
+		if (metrics != null) {
+			out = metrics.track(out);
+		}
+
+		ASCIITableHeader[] headerObjects = new ASCIITableHeader[0];
+
+		if (rowSource.getHeaders() != null) {
+			headerObjects = rowSource.getHeaders()
+					.toArray(new ASCIITableHeader[0]);
+		}
+
+		Iterator<List<ContainedType>> rows = rowSource.getRows();
+
+		int rowIndex = 0;
+
+		/*
+		 * Hold on to the rows we looked at to size the columns, since we
+		 * can't read them a second time.
 		 */
-		tableBuilder.append(getRowSeparatorLine(columnCount,
-				maximumColumnLengths, data));
-		return tableBuilder.toString();
+		List<String[]> sample = new ArrayList<>();
+
+		int[] columnWidths = rowSource.getColumnWidths();
+
+		if (columnWidths == null) {
+			while (sample.size() < sampleSize && rows.hasNext()) {
+				sample.add(formatRow(rowSource, headerObjects, rowIndex++,
+						rows.next()));
+			}
+		}
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EXTRACT);
+		}
+
+		if (columnWidths == null) {
+			columnWidths = TableLayout.measureColumns(new int[0],
+					sample.toArray(new String[0][]));
+		}
+
+		TableLayout layout = new TableLayout(headerObjects, columnWidths);
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_MEASURE);
+		}
+
+		String rowSeparator = layout.getSeparatorLine();
+
+		if (layout.hasHeader()) {
+			out.append(rowSeparator);
+			out.append(layout.getHeaderLine());
+		}
+
+		out.append(rowSeparator);
+
+		// Get the top of the table out while the rest is still coming
+		if (out instanceof Flushable) {
+			((Flushable) out).flush();
+		}
+
+		StringBuilder rowBuilder = StringBuilderPool.acquireFrom(bufferPool,
+				rowSeparator.length());
+
+		for (String[] row : sample) {
+			layout.appendDataRow(rowBuilder, row, overflow);
+
+			out.append(rowBuilder);
+			rowBuilder.setLength(0);
+
+			if (metrics != null) {
+				metrics.count(1, row.length, row.length);
+			}
+		}
+
+		// Let go of the sample before streaming the rest
+		sample.clear();
+
+		while (rows.hasNext()) {
+			String[] row = formatRow(rowSource, headerObjects, rowIndex++,
+					rows.next());
+
+			// Reading and writing take turns, so time them row by row
+			if (metrics != null) {
+				metrics.endPhase(RenderPhaseValues.PHASE_EXTRACT);
+				metrics.count(1, row.length, row.length);
+			}
+
+			layout.appendDataRow(rowBuilder, row, overflow);
+
+			out.append(rowBuilder);
+			rowBuilder.setLength(0);
+
+			if (metrics != null) {
+				metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			}
+		}
+
+		out.append(rowSeparator);
+
+		appendTruncationFooter(out, rowSource);
+
+		StringBuilderPool.releaseTo(bufferPool, rowBuilder);
+
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
+			metrics.setColumns(layout.getColumnCount());
+			metrics.finish();
+		}
 	}
 
 	@Override
 	public <ContainedType> String getTable(
 			IASCIITableAware<ContainedType> asciiTableAware) {
+		StringBuilder tableBuilder = StringBuilderPool
+				.acquireFrom(bufferPool);
+
+		try {
+			renderTo(tableBuilder, asciiTableAware);
+
+			return tableBuilder.toString();
+		} catch (IOException ioex) {
+			throw unexpectedIOException(ioex);
+		} finally {
+			StringBuilderPool.releaseTo(bufferPool, tableBuilder);
+		}
+	}
+
+	@Override
+	public <ContainedType> void renderTo(Appendable out,
+			IASCIITableAware<ContainedType> asciiTableAware)
+			throws IOException {
+		RenderMetrics metrics = RenderMetrics.start(listener, getClass());
+
+		if (metrics != null) {
+			out = metrics.track(out);
+		}
+
 		ASCIITableHeader[] headerObjects = new ASCIITableHeader[0];
 		ASCIITableHeader columnHeader = null;
 
 		String[][] data = new String[0][0];
 
-		List<ContainedType> rowData = null;
-		ArrayList<String> transformedRowData = null;
+		// The widest formatted cell seen so far in each column
+		int[] columnWidths = new int[0];
 
-		String[] rowContent = null;
 		String cellData = null;
 
+		// Guessing the table is ASCII only needs the lengths of its cells
+		boolean isGuessing = isGuessingASCII
+				&& out instanceof StringBuilder;
+
+		// JDBC columns can be formatted without boxing their values
+		JDBCASCIITableAware columnSource = null;
+
+		if (asciiTableAware instanceof JDBCASCIITableAware
+				&& ((JDBCASCIITableAware) asciiTableAware)
+						.isFormattingColumns()) {
+			columnSource = (JDBCASCIITableAware) asciiTableAware;
+		}
+
 		if (asciiTableAware != null) {
 			/**
 			 * Get the row header.
 			 */
-			if (asciiTableAware.getHeaders() != null
-					&& !asciiTableAware.getHeaders().isEmpty()) {
-				int headerCount = asciiTableAware.getHeaders().size();
-
-				headerObjects = new ASCIITableHeader[headerCount];
+			List<ASCIITableHeader> headers = asciiTableAware.getHeaders();
 
-				for (int i = 0; i < headerCount; i++) {
-					headerObjects[i] = asciiTableAware.getHeaders().get(i);
-				}
+			if (headers != null && !headers.isEmpty()) {
+				headerObjects = headers.toArray(new ASCIITableHeader[0]);
 			}
 
 			/**
-			 * Get the data.
+			 * Get the data, formatting and measuring each cell as we go.
 			 */
-			if (asciiTableAware.getData() != null
-					&& !asciiTableAware.getData().isEmpty()) {
-				int dataCount = asciiTableAware.getData().size();
+			List<List<ContainedType>> rows = asciiTableAware.getData();
 
-				data = new String[dataCount][];
+			if (rows != null && !rows.isEmpty()) {
+				data = new String[rows.size()][];
 
-				for (int i = 0; i < dataCount; i++) {
-					// Get the data from the row
-					rowData = asciiTableAware.getData().get(i);
+				int i = 0;
 
-					transformedRowData = new ArrayList<>(rowData.size());
+				for (List<ContainedType> rowData : rows) {
+					String[] rowContent = new String[rowData.size()];
 
-					// Transform each cell in the row
-					for (int j = 0; j < rowData.size(); j++) {
-						if (j < headerObjects.length) {
-							columnHeader = headerObjects[j];
-						} else {
-							columnHeader = null;
+					if (rowContent.length > columnWidths.length) {
+						columnWidths = Arrays.copyOf(columnWidths,
+								rowContent.length);
+					}
+
+					if (columnSource != null) {
+						columnSource.formatRow(i, rowContent);
+					} else {
+						int j = 0;
+
+						// Transform each cell in the row
+						for (ContainedType cell : rowData) {
+							if (j < headerObjects.length) {
+								columnHeader = headerObjects[j];
+							} else {
+								columnHeader = null;
+							}
+
+							// Transform the data using the transformation
+							// function provided.
+							cellData = asciiTableAware.formatData(
+									columnHeader, i, j, cell);
+
+							if (cellData == null) {
+								cellData = String.valueOf(cell);
+							}
+
+							rowContent[j++] = cellData;
 						}
+					}
 
-						// Transform the data using the transformation
-						// function provided.
-						cellData = asciiTableAware.formatData(columnHeader,
-								i, j, rowData.get(j));
+					// Measure each cell while the row is at hand
+					for (int j = 0; j < rowContent.length; j++) {
+						cellData = rowContent[j];
 
-						if (cellData == null) {
-							cellData = String.valueOf(rowData.get(j));
-						}
+						int width = isGuessing ? cellData.length()
+								: TableLayout.measure(cellData);
 
-						transformedRowData.add(cellData);
+						columnWidths[j] = Math.max(width, columnWidths[j]);
 					} // iterate all columns
 
-					// Set the transformed content
-					rowContent = new String[transformedRowData.size()];
+					data[i++] = rowContent;
+				} // iterate all rows
+			} // end data
+		}
 
-					int rowCount = 0;
+		if (data.length == 0) {
+			// Let the usual validation complain about the missing data
+			renderTo(out, headerObjects, data);
 
-					for (Iterator<String> iterator = transformedRowData
-							.iterator(); iterator.hasNext();) {
-						String string = iterator.next();
+			return;
+		}
 
-						rowContent[rowCount++] = string;
-					}
+		/*
+		 * Each cell was measured as it was formatted, so that time counts
+		 * as extracting, and measuring is just building the layout.
+		 */
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EXTRACT);
+		}
 
-					data[i] = rowContent;
-				} // iterate all rows
-			} // end data
+		TableLayout layout = new TableLayout(headerObjects, columnWidths);
+
+		if (isGuessing) {
+			layout = writeGuessingASCII((StringBuilder) out, layout,
+					headerObjects, data, metrics);
+		} else {
+			if (metrics != null) {
+				metrics.endPhase(RenderPhaseValues.PHASE_MEASURE);
+			}
+
+			writeTable(out, layout, data, 0, data.length);
 		}
 
-		return getTable(headerObjects, data);
-	}
+		appendTruncationFooter(out, asciiTableAware);
 
-	@Override
-	public String getTable(String[] headers, AlignmentValues headerAlign,
-			String[][] data, AlignmentValues dataAlign) {
-		ASCIITableHeader[] headerObjects = new ASCIITableHeader[0];
+		if (metrics != null) {
+			metrics.endPhase(RenderPhaseValues.PHASE_EMIT);
 
-		if (headers != null && headers.length > 0) {
-			headerObjects = new ASCIITableHeader[headers.length];
+			// Every cell was formatted by the source
+			long cellCount = RenderMetrics.countCells(data, 0, data.length);
 
-			for (int i = 0; i < headers.length; i++) {
-				headerObjects[i] = new ASCIITableHeader(headers[i],
-						dataAlign, headerAlign);
-			}
+			metrics.count(data.length, cellCount, cellCount);
+			metrics.setColumns(layout.getColumnCount());
+			metrics.finish();
 		}
+	}
 
-		return getTable(headerObjects, data);
+	@Override
+	public String getTable(String[] headers, AlignmentValues headerAlign,
+			String[][] data, AlignmentValues dataAlign) {
+		return getTable(getHeaderObjects(headers, headerAlign, dataAlign),
+				data);
 	}
 
 	@Override
@@ -412,19 +1038,31 @@ public class SimpleASCIITableImpl implements IASCIITable {
 	@Override
 	public void printTable(ASCIITableHeader[] headerObjects,
 			String[][] data) {
-		System.out.println(getTable(headerObjects, data));
+		try {
+			renderTo(System.out, headerObjects, data);
+		} catch (IOException ioex) {
+			throw unexpectedIOException(ioex);
+		}
+
+		System.out.println();
 	}
 
 	@Override
 	public <ContainedType> void printTable(
 			IASCIITableAware<ContainedType> asciiTableAware) {
-		System.out.println(getTable(asciiTableAware));
+		try {
+			renderTo(System.out, asciiTableAware);
+		} catch (IOException ioex) {
+			throw unexpectedIOException(ioex);
+		}
+
+		System.out.println();
 	}
 
 	@Override
 	public void printTable(String[] header, AlignmentValues headerAlign,
 			String[][] data, AlignmentValues dataAlign) {
-		System.out.println(getTable(header, headerAlign, data, dataAlign));
+		printTable(getHeaderObjects(header, headerAlign, dataAlign), data);
 	}
 
 	@Override
@@ -0,0 +1,133 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of string builders for renderers to build tables in, so
+ * rendering table after table doesn't allocate a new buffer each time.
+ *
+ * Builders are handed out to whichever thread asks, rather than kept per
+ * thread, so the pool works the same with a few platform threads or with
+ * many virtual threads. When the pool is empty a new builder is made, and
+ * builders returned to a full pool are dropped, so nobody ever waits.
+ * Builders that have grown past the retained capacity are dropped too,
+ * so one huge table doesn't tie up its memory for good.
+ *
+ * @author ben
+ *
+ */
+public class StringBuilderPool {
+	/**
+	 * The default largest capacity, in characters, of a builder kept for
+	 * reuse
+	 */
+	public static final int						DEFAULT_MAX_CAPACITY	= 1024 * 1024;
+
+	// The builders waiting to be reused
+	private final ArrayBlockingQueue<StringBuilder>	builders;
+
+	// The largest capacity of a builder kept for reuse
+	private final int								maxCapacity;
+
+	/**
+	 * Create a pool that keeps two builders for each processor, of up to
+	 * {@link #DEFAULT_MAX_CAPACITY} characters
+	 */
+	public StringBuilderPool() {
+		this(Runtime.getRuntime().availableProcessors() * 2,
+				DEFAULT_MAX_CAPACITY);
+	}
+
+	/**
+	 * Create a pool
+	 *
+	 * @param maxBuilders
+	 *            The most builders to keep for reuse
+	 * @param maxCapacity
+	 *            The largest capacity, in characters, of a builder kept
+	 *            for reuse
+	 */
+	public StringBuilderPool(int maxBuilders, int maxCapacity) {
+		builders = new ArrayBlockingQueue<>(maxBuilders);
+
+		this.maxCapacity = maxCapacity;
+	}
+
+	/**
+	 * Get an empty builder, reusing one from the pool if there is one
+	 *
+	 * @return The builder. Give it back with
+	 *         {@link #release(StringBuilder)} once done with it.
+	 */
+	public StringBuilder acquire() {
+		StringBuilder builder = builders.poll();
+
+		if (builder == null) {
+			return new StringBuilder();
+		}
+
+		return builder;
+	}
+
+	/*
+	 * Get a builder from a pool, or a new one if there is no pool
+	 */
+	static StringBuilder acquireFrom(StringBuilderPool pool) {
+		if (pool == null) {
+			return new StringBuilder();
+		}
+
+		return pool.acquire();
+	}
+
+	/*
+	 * Get a builder with room for at least the given number of characters
+	 * from a pool, or a new one if there is no pool
+	 */
+	static StringBuilder acquireFrom(StringBuilderPool pool, int capacity) {
+		if (pool == null) {
+			return new StringBuilder(capacity);
+		}
+
+		StringBuilder builder = pool.acquire();
+
+		builder.ensureCapacity(capacity);
+
+		return builder;
+	}
+
+	/*
+	 * Give a builder back to a pool, if there is one
+	 */
+	static void releaseTo(StringBuilderPool pool, StringBuilder builder) {
+		if (pool != null) {
+			pool.release(builder);
+		}
+	}
+
+	/**
+	 * Get the number of builders waiting to be reused
+	 *
+	 * @return The number of builders in the pool
+	 */
+	public int getSize() {
+		return builders.size();
+	}
+
+	/**
+	 * Give a builder back to the pool. Nothing built in it may be used
+	 * afterwards.
+	 *
+	 * @param builder
+	 *            The builder to give back
+	 */
+	public void release(StringBuilder builder) {
+		if (builder.capacity() > maxCapacity) {
+			return;
+		}
+
+		builder.setLength(0);
+
+		builders.offer(builder);
+	}
+}
@@ -0,0 +1,79 @@
+package com.bethecoder.ascii_table.impl;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * A column of strings. Null cells are written as blanks.
+ *
+ * The values are not copied, so they shouldn't be changed while the
+ * column is being rendered.
+ *
+ * @author ben
+ *
+ */
+public class StringColumn extends TableColumn {
+	// The values in the column
+	private final String[] values;
+
+	/**
+	 * Create a new column of strings
+	 *
+	 * @param header
+	 *            The header of the column
+	 * @param values
+	 *            The values in the column
+	 */
+	public StringColumn(ASCIITableHeader header, String... values) {
+		super(header);
+
+		this.values = values;
+	}
+
+	/**
+	 * Create a new column of strings
+	 *
+	 * @param header
+	 *            The name of the column
+	 * @param values
+	 *            The values in the column
+	 */
+	public StringColumn(String header, String... values) {
+		this(new ASCIITableHeader(header), values);
+	}
+
+	@Override
+	public void appendTo(StringBuilder builder, int row) {
+		String value = values[row];
+
+		if (value != null) {
+			builder.append(value);
+		}
+	}
+
+	@Override
+	public String getText(int row) {
+		String value = values[row];
+
+		if (value == null) {
+			return "";
+		}
+
+		return value;
+	}
+
+	@Override
+	public int measure(int row) {
+		String value = values[row];
+
+		if (value == null) {
+			return 0;
+		}
+
+		return TableLayout.measure(value);
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+}
@@ -0,0 +1,94 @@
+package com.bethecoder.ascii_table.impl;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * One column of a {@link ColumnarTable}.
+ *
+ * Columns know how wide each of their cells is without having to turn it
+ * into a string first, and write their cells straight into the buffer
+ * the table is being rendered into.
+ *
+ * @author ben
+ *
+ */
+public abstract class TableColumn {
+	// The header of the column
+	private final ASCIITableHeader header;
+
+	/**
+	 * Create a new column
+	 *
+	 * @param header
+	 *            The header of the column
+	 */
+	protected TableColumn(ASCIITableHeader header) {
+		this.header = header;
+	}
+
+	/**
+	 * Write a cell of this column to a buffer
+	 *
+	 * @param builder
+	 *            The buffer to write to
+	 * @param row
+	 *            The row of the cell
+	 */
+	public abstract void appendTo(StringBuilder builder, int row);
+
+	/**
+	 * Get the header of this column
+	 *
+	 * @return The header of this column
+	 */
+	public ASCIITableHeader getHeader() {
+		return header;
+	}
+
+	/**
+	 * Get the text of a cell of this column
+	 *
+	 * @param row
+	 *            The row of the cell
+	 * @return The text of the cell
+	 */
+	public String getText(int row) {
+		StringBuilder builder = new StringBuilder(measure(row));
+
+		appendTo(builder, row);
+
+		return builder.toString();
+	}
+
+	/**
+	 * Get the width of the widest cell in this column. This looks at every
+	 * cell in the column each time it is called.
+	 *
+	 * @return The width of the widest cell in the column
+	 */
+	public int getWidth() {
+		int width = 0;
+
+		for (int i = 0; i < size(); i++) {
+			width = Math.max(width, measure(i));
+		}
+
+		return width;
+	}
+
+	/**
+	 * Get the width of a cell of this column when rendered
+	 *
+	 * @param row
+	 *            The row of the cell
+	 * @return The width of the cell
+	 */
+	public abstract int measure(int row);
+
+	/**
+	 * Get the number of cells in this column
+	 *
+	 * @return The number of cells in this column
+	 */
+	public abstract int size();
+}
@@ -0,0 +1,410 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * Writes ASCII tables to files as UTF-8, a row at a time, without ever
+ * holding the whole table as a string or byte array.
+ *
+ * Rows are encoded into a direct buffer that is reused for every row,
+ * and the border lines are encoded once per table. Tables can either be
+ * written through a channel, or encoded straight into memory-mapped
+ * regions of the file.
+ *
+ * All of the text goes through the same strict encoder, so text that
+ * can't be encoded, such as an unpaired surrogate, fails with a
+ * {@link CharacterCodingException} wherever it is in the table, rather
+ * than being replaced.
+ *
+ * An exporter reuses its buffers from one table to the next, so it
+ * should only be used by one thread at a time.
+ *
+ * @author ben
+ *
+ */
+public class TableFileExporter {
+	/**
+	 * The default size of the buffer rows are encoded into
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/*
+	 * The limits on how much of a file to map at once
+	 */
+	private static final long MIN_REGION_SIZE = 64 * 1024;
+	private static final long MAX_REGION_SIZE = 1024 * 1024 * 1024;
+
+	/*
+	 * Somewhere for encoded bytes to go
+	 */
+	private abstract static class Output {
+		// The buffer currently being filled
+		protected ByteBuffer buffer;
+
+		/*
+		 * Get rid of what's in the buffer, so there is room for more
+		 */
+		protected abstract void makeRoom() throws IOException;
+
+		/*
+		 * Write out anything left, returning the total bytes written
+		 */
+		protected abstract long finish() throws IOException;
+
+		public void put(byte[] bytes) throws IOException {
+			int offset = 0;
+
+			while (offset < bytes.length) {
+				if (!buffer.hasRemaining()) {
+					makeRoom();
+				}
+
+				int chunk = Math.min(buffer.remaining(),
+						bytes.length - offset);
+
+				buffer.put(bytes, offset, chunk);
+
+				offset += chunk;
+			}
+		}
+
+		public void encode(CharsetEncoder encoder, CharBuffer chars)
+				throws IOException {
+			encoder.reset();
+
+			while (true) {
+				CoderResult result = encoder.encode(chars, buffer, true);
+
+				if (result.isUnderflow()) {
+					break;
+				} else if (result.isOverflow()) {
+					makeRoom();
+				} else {
+					result.throwException();
+				}
+			}
+
+			while (encoder.flush(buffer).isOverflow()) {
+				makeRoom();
+			}
+		}
+	}
+
+	/*
+	 * Writes through a channel, from a reused buffer
+	 */
+	private static final class ChannelOutput extends Output {
+		private final WritableByteChannel	channel;
+
+		// The bytes written so far
+		private long						written;
+
+		public ChannelOutput(WritableByteChannel channel,
+				ByteBuffer buffer) {
+			this.channel = channel;
+			this.buffer = buffer;
+
+			buffer.clear();
+		}
+
+		@Override
+		protected long finish() throws IOException {
+			makeRoom();
+
+			return written;
+		}
+
+		@Override
+		protected void makeRoom() throws IOException {
+			buffer.flip();
+
+			while (buffer.hasRemaining()) {
+				written += channel.write(buffer);
+			}
+
+			buffer.clear();
+		}
+	}
+
+	/*
+	 * Encodes straight into mapped regions of a file, then writes
+	 * whatever is left through the channel
+	 */
+	private static final class MappedOutput extends Output {
+		private final FileChannel	channel;
+
+		// The least the file will end up taking
+		private final long			minimumSize;
+
+		// The buffer to write the rest through, once past the mapped part
+		private final ByteBuffer	tailBuffer;
+
+		// Where in the file the current buffer starts
+		private long				regionStart;
+
+		// Whether the current buffer is a mapped region
+		private boolean				isMapped;
+
+		public MappedOutput(FileChannel channel, long minimumSize,
+				ByteBuffer tailBuffer) throws IOException {
+			this.channel = channel;
+			this.minimumSize = minimumSize;
+			this.tailBuffer = tailBuffer;
+
+			nextRegion();
+		}
+
+		@Override
+		protected long finish() throws IOException {
+			if (!isMapped) {
+				writeTail();
+			}
+
+			return regionStart + buffer.position();
+		}
+
+		@Override
+		protected void makeRoom() throws IOException {
+			if (isMapped) {
+				regionStart += buffer.position();
+
+				nextRegion();
+			} else {
+				writeTail();
+			}
+		}
+
+		private void nextRegion() throws IOException {
+			/*
+			 * Only map bytes the table is sure to fill, so the file never
+			 * has to be cut back while a region is still mapped, which
+			 * Windows refuses to do. Once too little is left to be worth
+			 * mapping, the rest goes through the channel.
+			 */
+			long regionSize = Math.min(minimumSize - regionStart,
+					MAX_REGION_SIZE);
+
+			if (regionSize >= MIN_REGION_SIZE) {
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+						regionStart, regionSize);
+
+				isMapped = true;
+			} else {
+				buffer = tailBuffer;
+				buffer.clear();
+
+				channel.position(regionStart);
+
+				isMapped = false;
+			}
+		}
+
+		private void writeTail() throws IOException {
+			buffer.flip();
+
+			while (buffer.hasRemaining()) {
+				regionStart += channel.write(buffer);
+			}
+
+			buffer.clear();
+		}
+	}
+
+	// The renderer to work out layouts with
+	private final SimpleASCIITableImpl	renderer;
+
+	// The buffer rows are encoded into before being written out
+	private final ByteBuffer			buffer;
+
+	private final CharsetEncoder		encoder	= StandardCharsets.UTF_8
+			.newEncoder();
+
+	// The characters of the row being encoded
+	private char[]						rowChars	= new char[256];
+	private CharBuffer					rowBuffer	= CharBuffer
+			.wrap(rowChars);
+
+	/**
+	 * Create a new exporter, with the default buffer size
+	 */
+	public TableFileExporter() {
+		this(new SimpleASCIITableImpl(), DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Create a new exporter
+	 *
+	 * @param renderer
+	 *            The renderer to work out the layout of tables with
+	 * @param bufferSize
+	 *            The size of the buffer to encode rows into
+	 */
+	public TableFileExporter(SimpleASCIITableImpl renderer,
+			int bufferSize) {
+		this.renderer = renderer;
+
+		buffer = ByteBuffer.allocateDirect(bufferSize);
+	}
+
+	/**
+	 * Write a table to a file through a file channel, replacing anything
+	 * already in the file.
+	 *
+	 * @param file
+	 *            The file to write to
+	 * @param headerObjects
+	 *            The headers of the table
+	 * @param data
+	 *            The data in the table
+	 * @return The number of bytes written
+	 * @throws IOException
+	 *             If something goes wrong writing to the file
+	 */
+	public long export(Path file, ASCIITableHeader[] headerObjects,
+			String[][] data) throws IOException {
+		TableLayout layout = getLayout(headerObjects, data);
+
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			return writeTo(channel, layout, data);
+		}
+	}
+
+	/**
+	 * Write a table to a file by encoding it straight into memory-mapped
+	 * regions of the file, replacing anything already in the file. Only
+	 * the bytes the table is sure to take up are mapped; anything past
+	 * them, from wider characters, is written through the channel.
+	 *
+	 * @param file
+	 *            The file to write to
+	 * @param headerObjects
+	 *            The headers of the table
+	 * @param data
+	 *            The data in the table
+	 * @return The number of bytes written
+	 * @throws IOException
+	 *             If something goes wrong writing to the file
+	 */
+	public long exportMapped(Path file, ASCIITableHeader[] headerObjects,
+			String[][] data) throws IOException {
+		TableLayout layout = getLayout(headerObjects, data);
+
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			/*
+			 * Every line is as many columns wide as the separator, and no
+			 * character takes fewer bytes of UTF-8 than it does columns
+			 */
+			long minimumSize = layout.getRenderedLength(data.length);
+
+			return write(new MappedOutput(channel, minimumSize, buffer),
+					layout, data);
+		}
+	}
+
+	/**
+	 * Write a table to a channel, using a precomputed layout. The channel
+	 * is not closed afterwards.
+	 *
+	 * @param channel
+	 *            The channel to write to
+	 * @param layout
+	 *            The layout of the table
+	 * @param data
+	 *            The data in the table
+	 * @return The number of bytes written
+	 * @throws IOException
+	 *             If something goes wrong writing to the channel
+	 */
+	public long writeTo(WritableByteChannel channel, TableLayout layout,
+			String[][] data) throws IOException {
+		return write(new ChannelOutput(channel, buffer), layout, data);
+	}
+
+	private TableLayout getLayout(ASCIITableHeader[] headerObjects,
+			String[][] data) {
+		// Sizing the output up front measures every cell anyways
+		if (data == null || data.length == 0) {
+			throw new IllegalArgumentException(
+					"Please provide valid data : " + Arrays.toString(data));
+		}
+
+		return renderer.getLayout(headerObjects, data);
+	}
+
+	private long write(Output output, TableLayout layout, String[][] data)
+			throws IOException {
+		// The borders are the same every time, so only encode them once
+		byte[] rowSeparator = encode(layout.getSeparatorLine());
+
+		if (layout.hasHeader()) {
+			output.put(rowSeparator);
+			output.put(encode(layout.getHeaderLine()));
+		}
+
+		output.put(rowSeparator);
+
+		StringBuilder rowBuilder = new StringBuilder(rowSeparator.length);
+
+		for (String[] row : data) {
+			layout.appendDataRow(rowBuilder, row);
+
+			output.encode(encoder, getChars(rowBuilder));
+
+			rowBuilder.setLength(0);
+		}
+
+		output.put(rowSeparator);
+
+		return output.finish();
+	}
+
+	/*
+	 * Encode a whole line with the same encoder as the rows
+	 */
+	private byte[] encode(String line) throws CharacterCodingException {
+		ByteBuffer bytes = encoder.encode(CharBuffer.wrap(line));
+
+		byte[] encoded = new byte[bytes.remaining()];
+
+		bytes.get(encoded);
+
+		return encoded;
+	}
+
+	/*
+	 * Copy a row into the reused character buffer, ready for encoding
+	 */
+	private CharBuffer getChars(StringBuilder rowBuilder) {
+		int length = rowBuilder.length();
+
+		if (length > rowChars.length) {
+			rowChars = new char[Math.max(length, rowChars.length * 2)];
+			rowBuffer = CharBuffer.wrap(rowChars);
+		}
+
+		rowBuilder.getChars(0, length, rowChars, 0);
+
+		rowBuffer.clear();
+		rowBuffer.limit(length);
+
+		return rowBuffer;
+	}
+}
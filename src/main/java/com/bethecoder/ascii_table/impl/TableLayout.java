@@ -0,0 +1,664 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.util.Arrays;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+import com.bethecoder.ascii_table.spec.IASCIITable;
+import com.bethecoder.ascii_table.spec.OverflowValues;
+
+/**
+ * The precomputed layout of an ASCII table: its headers, column widths,
+ * alignments and border lines.
+ *
+ * Computing a layout requires looking at every cell in the table, so when
+ * the same table schema is rendered repeatedly, the layout can be computed
+ * once and reused. Layouts are immutable, so a single one may be shared
+ * between threads. Widths only ever grow; see {@link #widen(String[][])}.
+ *
+ * @author ben
+ *
+ */
+public final class TableLayout {
+	/*
+	 * Runs of padding characters, so that padding can be appended in
+	 * chunks instead of one character at a time
+	 */
+	private static final char[]		SPACES	= createRun(' ', 128);
+	private static final char[]		DASHES	= createRun('-', 128);
+
+	// The marker for truncated cells
+	private static final String		ELLIPSIS	= "...";
+
+	// The headers this layout was built from
+	private final ASCIITableHeader[]	headerObjects;
+
+	// The width of the text in each column, not counting borders
+	private final int[]				columnWidths;
+
+	// The resolved alignments of each column
+	private final AlignmentValues[]	headerAligns;
+	private final AlignmentValues[]	dataAligns;
+
+	// The precomputed border and header lines
+	private final String			separatorLine;
+	private final String			headerLine;
+
+	/**
+	 * Create a new table layout
+	 *
+	 * @param headerObjects
+	 *            The headers of the table. May be empty, in which case the
+	 *            table is rendered without a header line.
+	 * @param columnWidths
+	 *            The width of each column. Columns are widened to fit their
+	 *            header, and there are always at least as many columns as
+	 *            headers.
+	 */
+	public TableLayout(ASCIITableHeader[] headerObjects,
+			int[] columnWidths) {
+		if (headerObjects == null) {
+			this.headerObjects = new ASCIITableHeader[0];
+		} else {
+			this.headerObjects = headerObjects.clone();
+		}
+
+		int columnCount = Math.max(this.headerObjects.length,
+				columnWidths.length);
+
+		this.columnWidths = Arrays.copyOf(columnWidths, columnCount);
+
+		headerAligns = new AlignmentValues[columnCount];
+		dataAligns = new AlignmentValues[columnCount];
+
+		String[] headerNames = new String[this.headerObjects.length];
+
+		for (int i = 0; i < columnCount; i++) {
+			if (i < this.headerObjects.length) {
+				ASCIITableHeader header = this.headerObjects[i];
+
+				headerNames[i] = header.getHeaderName();
+
+				headerAligns[i] = header.getHeaderAlign();
+				dataAligns[i] = header.getDataAlign();
+
+				this.columnWidths[i] = Math.max(measure(headerNames[i]),
+						this.columnWidths[i]);
+			} else {
+				headerAligns[i] = IASCIITable.DEFAULT_HEADER_ALIGN;
+				dataAligns[i] = IASCIITable.DEFAULT_DATA_ALIGN;
+			}
+		}
+
+		separatorLine = buildSeparatorLine();
+
+		if (headerNames.length > 0) {
+			StringBuilder headerBuilder = new StringBuilder(
+					separatorLine.length());
+
+			appendRow(headerBuilder, headerNames, headerAligns);
+
+			headerLine = headerBuilder.toString();
+		} else {
+			headerLine = null;
+		}
+	}
+
+	/**
+	 * Create a table layout that fits the given headers and data.
+	 *
+	 * @param headerObjects
+	 *            The headers of the table
+	 * @param data
+	 *            The data in the table
+	 * @return A layout wide enough for every cell in the table
+	 */
+	public static TableLayout forData(ASCIITableHeader[] headerObjects,
+			String[][] data) {
+		return new TableLayout(headerObjects, measureColumns(new int[0], data));
+	}
+
+	/*
+	 * Create a table layout that fits the given headers and data, as long
+	 * as the data is all ASCII. Only the lengths of the cells are looked
+	 * at, not their characters; see appendASCIIDataRow.
+	 */
+	static TableLayout forASCIIData(ASCIITableHeader[] headerObjects,
+			String[][] data) {
+		int[] widths = new int[0];
+
+		for (String[] row : data) {
+			if (row.length > widths.length) {
+				widths = Arrays.copyOf(widths, row.length);
+			}
+
+			for (int j = 0; j < row.length; j++) {
+				widths[j] = Math.max(row[j].length(), widths[j]);
+			}
+		}
+
+		return new TableLayout(headerObjects, widths);
+	}
+
+	/**
+	 * Get the number of columns in this layout
+	 *
+	 * @return The number of columns in this layout
+	 */
+	public int getColumnCount() {
+		return columnWidths.length;
+	}
+
+	/**
+	 * Get the width of the text in a column, not counting borders
+	 *
+	 * @param column
+	 *            The column to get the width of
+	 * @return The width of the text in the column
+	 */
+	public int getColumnWidth(int column) {
+		return columnWidths[column];
+	}
+
+	/**
+	 * Get the widths of the text in each column, not counting borders
+	 *
+	 * @return The width of the text in each column
+	 */
+	public int[] getColumnWidths() {
+		return columnWidths.clone();
+	}
+
+	/**
+	 * Get the exact number of characters a table with this layout takes
+	 * up, as long as its cells all fit in their columns.
+	 *
+	 * Every line of the table, border or row, is as long as the separator
+	 * line: the sum of the column widths, plus three characters of border
+	 * and padding per column, plus the closing border and newline.
+	 *
+	 * Widths are measured in columns, so this is only exact when every
+	 * character takes up one column. Wide characters make the table
+	 * shorter than this, and zero-width ones make it longer.
+	 *
+	 * @param rowCount
+	 *            The number of data rows in the table
+	 * @return The number of characters in the rendered table
+	 */
+	public long getRenderedLength(int rowCount) {
+		// The top and bottom borders, plus the header and its border
+		long lineCount = rowCount + 2;
+
+		if (hasHeader()) {
+			lineCount += 2;
+		}
+
+		return lineCount * separatorLine.length();
+	}
+
+	/**
+	 * Get the headers this layout was built from
+	 *
+	 * @return The headers this layout was built from
+	 */
+	public ASCIITableHeader[] getHeaderObjects() {
+		return headerObjects.clone();
+	}
+
+	/**
+	 * Get the line separating the header and data from each other and the
+	 * rest of the world, including its trailing newline
+	 *
+	 * @return The separator line of the table
+	 */
+	public String getSeparatorLine() {
+		return separatorLine;
+	}
+
+	/**
+	 * Get the rendered header line, including its trailing newline
+	 *
+	 * @return The header line of the table, or null if the table has no
+	 *         headers
+	 */
+	public String getHeaderLine() {
+		return headerLine;
+	}
+
+	/**
+	 * Check whether this layout renders a header line
+	 *
+	 * @return Whether this layout renders a header line
+	 */
+	public boolean hasHeader() {
+		return headerLine != null;
+	}
+
+	/**
+	 * Get a layout wide enough to fit the given data.
+	 *
+	 * Columns never shrink, so once a layout has seen its widest data,
+	 * this returns the same layout without doing any more layout work.
+	 *
+	 * @param data
+	 *            The data that needs to fit in the layout
+	 * @return This layout if the data already fits, or a wider layout if
+	 *         it doesn't
+	 */
+	public TableLayout widen(String[][] data) {
+		int[] widths = measureColumns(columnWidths, data);
+
+		if (widths == columnWidths) {
+			return this;
+		}
+
+		return new TableLayout(headerObjects, widths);
+	}
+
+	/**
+	 * Append one row of data to a buffer, padded and aligned to this
+	 * layout. Missing cells are rendered as blanks, and extra cells are
+	 * ignored.
+	 *
+	 * @param rowBuilder
+	 *            The buffer to append to
+	 * @param row
+	 *            The cells in the row
+	 */
+	public void appendDataRow(StringBuilder rowBuilder, String[] row) {
+		appendRow(rowBuilder, row, dataAligns);
+	}
+
+	/**
+	 * Append one row of a columnar table to a buffer, padded and aligned
+	 * to this layout. Cells are written straight into the buffer, without
+	 * being turned into strings first.
+	 *
+	 * @param rowBuilder
+	 *            The buffer to append to
+	 * @param table
+	 *            The table to take the row from
+	 * @param row
+	 *            The index of the row
+	 */
+	public void appendDataRow(StringBuilder rowBuilder, ColumnarTable table,
+			int row) {
+		for (int i = 0; i < columnWidths.length; i++) {
+			rowBuilder.append("| ");
+
+			if (i < table.getColumnCount()) {
+				TableColumn column = table.getColumn(i);
+
+				int padding = columnWidths[i] - column.measure(row);
+
+				if (padding <= 0) {
+					column.appendTo(rowBuilder, row);
+				} else {
+					int leftPadding = getLeftPadding(padding, dataAligns[i]);
+
+					appendRun(rowBuilder, SPACES, leftPadding);
+					column.appendTo(rowBuilder, row);
+					appendRun(rowBuilder, SPACES, padding - leftPadding);
+				}
+			} else {
+				appendRun(rowBuilder, SPACES, columnWidths[i]);
+			}
+
+			rowBuilder.append(' ');
+		}
+
+		rowBuilder.append("|\n");
+	}
+
+	/**
+	 * Append one row of data to a buffer, padded and aligned to this
+	 * layout. Cells wider than their column are handled according to the
+	 * overflow setting, so borders always line up.
+	 *
+	 * @param rowBuilder
+	 *            The buffer to append to
+	 * @param row
+	 *            The cells in the row
+	 * @param overflow
+	 *            What to do with cells that are wider than their column
+	 */
+	public void appendDataRow(StringBuilder rowBuilder, String[] row,
+			OverflowValues overflow) {
+		String[] cells = row;
+
+		int lineCount = 1;
+
+		for (int i = 0; i < columnWidths.length && i < cells.length; i++) {
+			int width = measure(cells[i]);
+
+			if (width <= columnWidths[i]) {
+				continue;
+			}
+
+			if (overflow == OverflowValues.OVERFLOW_WRAP
+					&& columnWidths[i] > 0) {
+				lineCount = Math.max(lineCount,
+						countLines(cells[i], columnWidths[i]));
+			} else {
+				if (cells == row) {
+					// Never write back into the caller's row
+					cells = row.clone();
+				}
+
+				cells[i] = truncate(cells[i], columnWidths[i]);
+			}
+		}
+
+		if (lineCount == 1) {
+			appendRow(rowBuilder, cells, dataAligns);
+
+			return;
+		}
+
+		// Where the next line of each cell starts
+		int[] lineStarts = new int[cells.length];
+
+		for (int line = 0; line < lineCount; line++) {
+			for (int i = 0; i < columnWidths.length; i++) {
+				int width = columnWidths[i];
+
+				rowBuilder.append("| ");
+
+				if (i < cells.length) {
+					String cell = cells[i];
+
+					// Wrapped cells are split into column-sized pieces
+					int start = lineStarts[i];
+					int end = start;
+
+					if (start < cell.length()) {
+						end = getLineEnd(cell, start, width);
+					}
+
+					appendFormattedData(rowBuilder, width, cell, start, end,
+							dataAligns[i]);
+
+					lineStarts[i] = end;
+				} else {
+					appendRun(rowBuilder, SPACES, width);
+				}
+
+				rowBuilder.append(' ');
+			}
+
+			rowBuilder.append("|\n");
+		}
+	}
+
+	/*
+	 * Append one row of data to a buffer, on the guess that every cell in
+	 * it is ASCII, so takes up as many columns as it has characters. Each
+	 * cell is checked as it is written, while its characters are at hand
+	 * anyways. Returns false, having appended nothing, if a cell isn't
+	 * ASCII.
+	 */
+	boolean appendASCIIDataRow(StringBuilder rowBuilder, String[] row) {
+		int rowStart = rowBuilder.length();
+
+		for (int i = 0; i < columnWidths.length; i++) {
+			rowBuilder.append("| ");
+
+			if (i < row.length) {
+				String cell = row[i];
+
+				if (!DisplayWidth.isASCII(cell)) {
+					rowBuilder.setLength(rowStart);
+
+					return false;
+				}
+
+				appendPadded(rowBuilder, columnWidths[i] - cell.length(), cell,
+						0, cell.length(), dataAligns[i]);
+			} else {
+				appendRun(rowBuilder, SPACES, columnWidths[i]);
+			}
+
+			rowBuilder.append(' ');
+		}
+
+		rowBuilder.append("|\n");
+
+		return true;
+	}
+
+	private void appendRow(StringBuilder rowBuilder, String[] row,
+			AlignmentValues[] aligns) {
+		for (int i = 0; i < columnWidths.length; i++) {
+			rowBuilder.append("| ");
+
+			if (i < row.length) {
+				appendFormattedData(rowBuilder, columnWidths[i], row[i],
+						aligns[i]);
+			} else {
+				appendRun(rowBuilder, SPACES, columnWidths[i]);
+			}
+
+			rowBuilder.append(' ');
+		}
+
+		rowBuilder.append("|\n");
+	}
+
+	/**
+	 * Each string item rendering requires the border and a space on both
+	 * sides.
+	 *
+	 * 12 3 12 3 12 34 +----- +-------- +------+ abc venkat last
+	 *
+	 * @return The row seperating the lines
+	 */
+	private String buildSeparatorLine() {
+		int lineLength = 2;
+
+		for (int i = 0; i < columnWidths.length; i++) {
+			lineLength += columnWidths[i] + 3;
+		}
+
+		StringBuilder rowBuilder = new StringBuilder(lineLength);
+
+		for (int i = 0; i < columnWidths.length; i++) {
+			rowBuilder.append('+');
+
+			appendRun(rowBuilder, DASHES, columnWidths[i] + 2);
+		}
+
+		return rowBuilder.append("+\n").toString();
+	}
+
+	static void appendFormattedData(StringBuilder rowBuilder,
+			int maxLength, String data, AlignmentValues align) {
+		// Whole cells are measured through the cache
+		appendPadded(rowBuilder, maxLength - measure(data), data, 0,
+				data.length(), align);
+	}
+
+	/*
+	 * Append part of a cell, padded out to the given length
+	 */
+	static void appendFormattedData(StringBuilder rowBuilder,
+			int maxLength, String data, int start, int end,
+			AlignmentValues align) {
+		appendPadded(rowBuilder, maxLength - measure(data, start, end), data,
+				start, end, align);
+	}
+
+	/*
+	 * Append part of a cell with the given amount of padding
+	 */
+	private static void appendPadded(StringBuilder rowBuilder, int padding,
+			String data, int start, int end, AlignmentValues align) {
+		if (padding <= 0) {
+			rowBuilder.append(data, start, end);
+
+			return;
+		}
+
+		switch (align) {
+			case ALIGN_CENTER:
+				// Odd padding goes on the left
+				appendRun(rowBuilder, SPACES, padding - padding / 2);
+				rowBuilder.append(data, start, end);
+				appendRun(rowBuilder, SPACES, padding / 2);
+				break;
+			case ALIGN_LEFT:
+				rowBuilder.append(data, start, end);
+				appendRun(rowBuilder, SPACES, padding);
+				break;
+			case ALIGN_RIGHT:
+				appendRun(rowBuilder, SPACES, padding);
+				rowBuilder.append(data, start, end);
+				break;
+			default:
+				rowBuilder.append(data, start, end);
+				break;
+		}
+	}
+
+	/*
+	 * Get how much of a cell's padding goes on its left
+	 */
+	private static int getLeftPadding(int padding, AlignmentValues align) {
+		switch (align) {
+			case ALIGN_CENTER:
+				// Odd padding goes on the left
+				return padding - padding / 2;
+			case ALIGN_RIGHT:
+				return padding;
+			default:
+				return 0;
+		}
+	}
+
+	static void appendRun(StringBuilder builder, char[] run, int count) {
+		int remaining = count;
+
+		while (remaining > 0) {
+			int chunk = Math.min(remaining, run.length);
+
+			builder.append(run, 0, chunk);
+
+			remaining -= chunk;
+		}
+	}
+
+	private static char[] createRun(char fill, int length) {
+		char[] run = new char[length];
+
+		Arrays.fill(run, fill);
+
+		return run;
+	}
+
+	/**
+	 * Get the width a cell takes up when rendered
+	 *
+	 * @param cell
+	 *            The cell to measure
+	 * @return The width of the cell
+	 */
+	static int measure(String cell) {
+		return DisplayWidth.of(cell);
+	}
+
+	/*
+	 * Get the width part of a cell takes up when rendered
+	 */
+	static int measure(String cell, int start, int end) {
+		return DisplayWidth.of(cell, start, end);
+	}
+
+	/*
+	 * Cut a cell down to fit in the given width, marking the cut with an
+	 * ellipsis if there is room for one
+	 */
+	static String truncate(String cell, int width) {
+		if (width < ELLIPSIS.length() + 1) {
+			return cell.substring(0, DisplayWidth.fit(cell, 0, width));
+		}
+
+		return cell.substring(0,
+				DisplayWidth.fit(cell, 0, width - ELLIPSIS.length()))
+				+ ELLIPSIS;
+	}
+
+	/*
+	 * Count the lines a cell takes up when wrapped to the given width
+	 */
+	private static int countLines(String cell, int width) {
+		int lineCount = 0;
+
+		for (int start = 0; start < cell.length(); lineCount++) {
+			start = getLineEnd(cell, start, width);
+		}
+
+		return lineCount;
+	}
+
+	/*
+	 * Find where a line of a wrapped cell ends, given where it starts
+	 */
+	private static int getLineEnd(String cell, int start, int width) {
+		int end = DisplayWidth.fit(cell, start, width);
+
+		if (end == start) {
+			// A wide character in a narrow column still has to go somewhere
+			end += Character.charCount(cell.codePointAt(start));
+		}
+
+		return end;
+	}
+
+	/*
+	 * Grow a set of column widths to fit some data. Returns the original
+	 * array if nothing needed to grow.
+	 */
+	static int[] measureColumns(int[] columnWidths, String[][] data) {
+		return measureColumns(columnWidths, data, 0, data.length);
+	}
+
+	/*
+	 * Grow a set of column widths to fit the rows [from, to) of some data.
+	 * Returns the original array if nothing needed to grow.
+	 */
+	static int[] measureColumns(int[] columnWidths, String[][] data,
+			int from, int to) {
+		int[] widths = columnWidths;
+
+		// Walk the data row by row, so we read each row array in order
+		for (int i = from; i < to; i++) {
+			String[] row = data[i];
+
+			if (row.length > widths.length) {
+				widths = Arrays.copyOf(widths, row.length);
+			}
+
+			for (int j = 0; j < row.length; j++) {
+				/*
+				 * No character is more than two columns wide, so a cell
+				 * that short can't widen its column, and there's no need
+				 * to look at its characters.
+				 */
+				if (row[j].length() * 2L <= widths[j]) {
+					continue;
+				}
+
+				int width = measure(row[j]);
+
+				if (width > widths[j]) {
+					if (widths == columnWidths) {
+						widths = columnWidths.clone();
+					}
+
+					widths[j] = width;
+				}
+			}
+		}
+
+		return widths;
+	}
+}
@@ -0,0 +1,163 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * Renders a table a page at a time.
+ *
+ * The column widths are worked out once, over the whole table, so every
+ * page has the same widths and borders, and rendering a page only takes
+ * time proportional to the size of the page.
+ *
+ * The data is not copied, so cells should not be changed after the pager
+ * is created; a cell that grows won't fit its column any more.
+ *
+ * @author ben
+ *
+ */
+public class TablePager {
+	// The renderer to render pages with
+	private final SimpleASCIITableImpl	renderer;
+
+	// The layout shared by every page
+	private final TableLayout			layout;
+
+	// The data in the table
+	private final String[][]			data;
+
+	/**
+	 * Create a new pager for a table
+	 *
+	 * @param headerObjects
+	 *            The headers of the table
+	 * @param data
+	 *            The data in the table
+	 */
+	public TablePager(ASCIITableHeader[] headerObjects, String[][] data) {
+		this(new SimpleASCIITableImpl(), headerObjects, data);
+	}
+
+	/**
+	 * Create a new pager for a table, that renders with the given renderer
+	 *
+	 * @param renderer
+	 *            The renderer to work out the layout and render pages with
+	 * @param headerObjects
+	 *            The headers of the table
+	 * @param data
+	 *            The data in the table
+	 */
+	public TablePager(SimpleASCIITableImpl renderer,
+			ASCIITableHeader[] headerObjects, String[][] data) {
+		if (data == null) {
+			throw new IllegalArgumentException(
+					"Please provide valid data : " + Arrays.toString(data));
+		}
+
+		this.renderer = renderer;
+		this.data = data;
+
+		layout = renderer.getLayout(headerObjects, data);
+	}
+
+	/**
+	 * Create a new pager for a table, using an existing layout. The layout
+	 * is widened if the data doesn't fit in it.
+	 *
+	 * @param layout
+	 *            The layout to render pages with
+	 * @param data
+	 *            The data in the table
+	 */
+	public TablePager(TableLayout layout, String[][] data) {
+		if (data == null) {
+			throw new IllegalArgumentException(
+					"Please provide valid data : " + Arrays.toString(data));
+		}
+
+		this.renderer = new SimpleASCIITableImpl();
+		this.data = data;
+		this.layout = layout.widen(data);
+	}
+
+	/**
+	 * Get the layout every page is rendered with
+	 *
+	 * @return The layout every page is rendered with
+	 */
+	public TableLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Get the number of pages of a given size the table takes up
+	 *
+	 * @param pageSize
+	 *            The number of rows on each page
+	 * @return The number of pages in the table
+	 */
+	public int getPageCount(int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException(
+					"Page size must be positive, not " + pageSize);
+		}
+
+		if (data.length == 0) {
+			return 0;
+		}
+
+		// Round up, so a partial last page still counts, without adding
+		// anything that could overflow
+		return (data.length - 1) / pageSize + 1;
+	}
+
+	/**
+	 * Get the number of rows in the table
+	 *
+	 * @return The number of rows in the table
+	 */
+	public int getRowCount() {
+		return data.length;
+	}
+
+	/**
+	 * Render the rows [from, to) of the table as a string
+	 *
+	 * @param from
+	 *            The first row on the page
+	 * @param to
+	 *            The row after the last one on the page
+	 * @return The page in string form
+	 */
+	public String getPage(int from, int to) {
+		StringBuilder pageBuilder = new StringBuilder();
+
+		try {
+			renderPage(pageBuilder, from, to);
+		} catch (IOException ioex) {
+			throw SimpleASCIITableImpl.unexpectedIOException(ioex);
+		}
+
+		return pageBuilder.toString();
+	}
+
+	/**
+	 * Render the rows [from, to) of the table to the provided output
+	 *
+	 * @param out
+	 *            The place to write the page to
+	 * @param from
+	 *            The first row on the page
+	 * @param to
+	 *            The row after the last one on the page
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public void renderPage(Appendable out, int from, int to)
+			throws IOException {
+		renderer.renderTo(out, layout, data, from, to);
+	}
+}
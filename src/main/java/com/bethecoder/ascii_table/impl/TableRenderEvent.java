@@ -0,0 +1,53 @@
+package com.bethecoder.ascii_table.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A flight recorder event for a table being rendered.
+ *
+ * The event is off by default. Turn it on in a recording's settings to
+ * see it. While it is off, renderers don't time or count anything for it.
+ *
+ * @author ben
+ *
+ */
+@Name("com.bethecoder.ascii_table.TableRender")
+@Label("Table Render")
+@Category("ASCII Table")
+@Description("A table rendered to text or HTML")
+@Enabled(false)
+final class TableRenderEvent extends Event {
+	@Label("Renderer")
+	Class<?>	renderer;
+
+	@Label("Rows")
+	long		rows;
+
+	@Label("Columns")
+	int			columns;
+
+	@Label("Output Characters")
+	@Description("The number of characters written out")
+	long		outputChars;
+
+	@Label("Extract Time")
+	@Description("Time spent getting and formatting the data")
+	@Timespan(Timespan.NANOSECONDS)
+	long		extractTime;
+
+	@Label("Measure Time")
+	@Description("Time spent working out column widths and the layout")
+	@Timespan(Timespan.NANOSECONDS)
+	long		measureTime;
+
+	@Label("Emit Time")
+	@Description("Time spent writing the rows out")
+	@Timespan(Timespan.NANOSECONDS)
+	long		emitTime;
+}
@@ -0,0 +1,34 @@
+package com.bethecoder.ascii_table.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for the data of a table being read in from its
+ * source, such as a result set or a collection of beans.
+ *
+ * The event is off by default. Turn it on in a recording's settings to
+ * see it.
+ *
+ * @author ben
+ *
+ */
+@Name("com.bethecoder.ascii_table.TableSourceLoad")
+@Label("Table Source Load")
+@Category("ASCII Table")
+@Description("The data of a table read in from its source")
+@Enabled(false)
+final class TableSourceLoadEvent extends Event {
+	@Label("Source")
+	Class<?>	source;
+
+	@Label("Rows")
+	long		rows;
+
+	@Label("Columns")
+	int			columns;
+}
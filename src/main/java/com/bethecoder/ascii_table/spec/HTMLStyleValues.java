@@ -0,0 +1,19 @@
+package com.bethecoder.ascii_table.spec;
+
+/**
+ * Settings for how HTML tables style their cells
+ * 
+ * @author ben
+ *
+ */
+public enum HTMLStyleValues {
+	/**
+	 * Give every cell its own inline style
+	 */
+	STYLE_INLINE,
+	/**
+	 * Style each column once, in a style block at the top of the table,
+	 * and leave the cells bare
+	 */
+	STYLE_CLASSES;
+}
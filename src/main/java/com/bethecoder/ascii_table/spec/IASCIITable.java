@@ -15,11 +15,17 @@
  */
 package com.bethecoder.ascii_table.spec;
 
+import java.io.IOException;
+
 import com.bethecoder.ascii_table.ASCIITableHeader;
 
 /**
  * Interface specifying the API for an ASCII table
  * 
+ * Implementations shouldn't keep any state from one table to the next, so
+ * that one instance can render tables for many threads at once. All of
+ * the implementations in this library work this way.
+ * 
  * @author K Venkata Sudhakar (kvenkatasudhakar@gmail.com)
  * @version 1.0
  *
@@ -109,6 +115,54 @@ public interface IASCIITable {
 	public String getTable(String[] header, String[][] data,
 			AlignmentValues dataAlign);
 
+	/**
+	 * Render the ASCII table directly to the provided output, writing each
+	 * line as it is produced instead of building the whole table in memory
+	 * first.
+	 * 
+	 * The default implementation builds the table with
+	 * {@link #getTable(ASCIITableHeader[], String[][])} and writes it out
+	 * in one go.
+	 * 
+	 * @param out
+	 *            The place to write the table to
+	 * @param headerObjs
+	 *            The objects for the headers
+	 * @param data
+	 *            The data in the table
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public default void renderTo(Appendable out,
+			ASCIITableHeader[] headerObjs, String[][] data)
+			throws IOException {
+		out.append(getTable(headerObjs, data));
+	}
+
+	/**
+	 * Render the ASCII table directly to the provided output, writing each
+	 * line as it is produced instead of building the whole table in memory
+	 * first.
+	 * 
+	 * The default implementation builds the table with
+	 * {@link #getTable(IASCIITableAware)} and writes it out in one go.
+	 * 
+	 * @param <ContainedType>
+	 *            The type of data in the table
+	 * 
+	 * @param out
+	 *            The place to write the table to
+	 * @param asciiTableAware
+	 *            The source for table data
+	 * @throws IOException
+	 *             If something goes wrong writing to the output
+	 */
+	public default <ContainedType> void renderTo(Appendable out,
+			IASCIITableAware<ContainedType> asciiTableAware)
+			throws IOException {
+		out.append(getTable(asciiTableAware));
+	}
+
 	/**
 	 * Print the table to console
 	 * 
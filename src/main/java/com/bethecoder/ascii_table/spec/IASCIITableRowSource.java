@@ -0,0 +1,58 @@
+package com.bethecoder.ascii_table.spec;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * A source of table rows that are produced one at a time, instead of
+ * being held in memory all at once like with {@link IASCIITableAware}.
+ * 
+ * @author ben
+ * @param <ContainedType>
+ *            The type of data stored in this table
+ *
+ */
+public interface IASCIITableRowSource<ContainedType> {
+	/**
+	 * Returns the formatted data item for a particular cell. Return
+	 * <null> if you don't want to format the data. It uses
+	 * String.valueOf(data) as cell value in that case.
+	 * 
+	 * @param header
+	 *            The header for the cell
+	 * @param row
+	 *            The row in the table the data is in
+	 * @param col
+	 *            The column in the table the data is in
+	 * @param data
+	 *            The data in the cell
+	 * @return The formatted data in the cell
+	 */
+	public String formatData(ASCIITableHeader header, int row, int col,
+			ContainedType data);
+
+	/**
+	 * Returns the declared width of each column. Return <null> if the
+	 * widths should be worked out from a sample of the rows instead.
+	 * 
+	 * @return The width of each column
+	 */
+	public int[] getColumnWidths();
+
+	/**
+	 * Returns the list of headers to render.
+	 * 
+	 * @return The list of headers to render
+	 */
+	public List<ASCIITableHeader> getHeaders();
+
+	/**
+	 * Returns an iterator over the rows to render. The rows are only read
+	 * once, so the iterator is free to produce them lazily.
+	 * 
+	 * @return An iterator over the rows to render
+	 */
+	public Iterator<List<ContainedType>> getRows();
+}
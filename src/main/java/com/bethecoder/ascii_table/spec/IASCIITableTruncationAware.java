@@ -0,0 +1,30 @@
+package com.bethecoder.ascii_table.spec;
+
+/**
+ * A source of table data that may have stopped before reaching the end of
+ * its data, such as when it hit a limit on how many rows to read.
+ * 
+ * Renderers use this to tell readers about the rows that aren't shown.
+ * For sources that produce rows one at a time, this is only accurate once
+ * all of the rows have been read.
+ * 
+ * @author ben
+ *
+ */
+public interface IASCIITableTruncationAware {
+	/**
+	 * Returns the number of rows that were left out of the table, if it
+	 * is known.
+	 * 
+	 * @return The number of rows left out of the table, or -1 if the
+	 *         table was truncated but it isn't known by how much
+	 */
+	public long getOmittedRowCount();
+
+	/**
+	 * Returns whether any rows were left out of the table.
+	 * 
+	 * @return Whether any rows were left out of the table
+	 */
+	public boolean isTruncated();
+}
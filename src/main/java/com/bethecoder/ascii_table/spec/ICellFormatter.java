@@ -0,0 +1,20 @@
+package com.bethecoder.ascii_table.spec;
+
+/**
+ * Turns the value of a table cell into the text to display for it
+ * 
+ * @author ben
+ * @param <ValueType>
+ *            The type of value this formats
+ *
+ */
+public interface ICellFormatter<ValueType> {
+	/**
+	 * Format a cell value for display
+	 * 
+	 * @param value
+	 *            The value to format. Never null.
+	 * @return The text to display for the value
+	 */
+	public String format(ValueType value);
+}
@@ -0,0 +1,74 @@
+package com.bethecoder.ascii_table.spec;
+
+/**
+ * Gets told how long each phase of rendering a table took, and how big
+ * the table was, so the cost of rendering can be tracked.
+ * 
+ * Renderers ask {@link #isEnabled()} once per table. If it returns false,
+ * they don't read the clock or count anything for that table. Listeners
+ * can be called from many threads at once.
+ * 
+ * @author ben
+ *
+ */
+public interface IRenderListener {
+	/**
+	 * A listener that ignores everything, and so costs nothing
+	 */
+	public static final IRenderListener NO_OP = new IRenderListener() {
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		public void phaseFinished(RenderPhaseValues phase, long nanos) {
+			// Ignored
+		}
+
+		@Override
+		public void tableFinished(long rows, long cells, long chars,
+				long formatCalls) {
+			// Ignored
+		}
+	};
+
+	/**
+	 * Check whether this listener wants to hear about tables at all
+	 * 
+	 * @return Whether renderers should time and count tables for this
+	 *         listener
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Called once for each phase of a table, after the table has finished
+	 * rendering and before {@link #tableFinished(long, long, long, long)}.
+	 * Phases a table didn't need are reported as taking no time. Phases
+	 * that take turns row by row, as when streaming, are reported as the
+	 * total over all the rows.
+	 * 
+	 * @param phase
+	 *            The phase
+	 * @param nanos
+	 *            The time spent in the phase, in nanoseconds
+	 */
+	public void phaseFinished(RenderPhaseValues phase, long nanos);
+
+	/**
+	 * Called once a table has finished rendering. Nothing is reported for
+	 * tables that fail to render.
+	 * 
+	 * @param rows
+	 *            The number of data rows in the table
+	 * @param cells
+	 *            The number of data cells in the table
+	 * @param chars
+	 *            The number of characters written out
+	 * @param formatCalls
+	 *            The number of times the source of the table was asked to
+	 *            format a cell
+	 */
+	public void tableFinished(long rows, long cells, long chars,
+			long formatCalls);
+}
@@ -0,0 +1,19 @@
+package com.bethecoder.ascii_table.spec;
+
+/**
+ * Settings for what to do with cells that don't fit in their column
+ * 
+ * @author ben
+ *
+ */
+public enum OverflowValues {
+	/**
+	 * Cut the cell off at the column width, marking the cut with an
+	 * ellipsis
+	 */
+	OVERFLOW_TRUNCATE,
+	/**
+	 * Continue the cell on as many extra lines as it needs
+	 */
+	OVERFLOW_WRAP;
+}
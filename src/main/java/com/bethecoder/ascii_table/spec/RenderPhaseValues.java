@@ -0,0 +1,26 @@
+package com.bethecoder.ascii_table.spec;
+
+/**
+ * The phases a table goes through as it is rendered
+ * 
+ * @author ben
+ *
+ */
+public enum RenderPhaseValues {
+	/**
+	 * Getting the headers and data from the source of the table, and
+	 * formatting each cell
+	 */
+	PHASE_EXTRACT,
+	/**
+	 * Working out the widths of the columns, and the layout of the table.
+	 * Where cells are measured in the same pass that formats them, such as
+	 * for an {@link IASCIITableAware}, that time counts as
+	 * {@link #PHASE_EXTRACT} instead.
+	 */
+	PHASE_MEASURE,
+	/**
+	 * Writing the rows of the table to the output
+	 */
+	PHASE_EMIT;
+}
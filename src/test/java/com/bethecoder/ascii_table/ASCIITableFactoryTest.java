@@ -0,0 +1,180 @@
+package com.bethecoder.ascii_table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.impl.HTMLASCIITableImpl;
+import com.bethecoder.ascii_table.impl.ParallelASCIITableImpl;
+import com.bethecoder.ascii_table.impl.SimpleASCIITableImpl;
+import com.bethecoder.ascii_table.impl.StringBuilderPool;
+import com.bethecoder.ascii_table.spec.HTMLStyleValues;
+import com.bethecoder.ascii_table.spec.IASCIITable;
+
+/**
+ * Checks that shared renderers, and renderers sharing a buffer pool,
+ * write exactly the same tables from many threads at once as a renderer
+ * used by one thread
+ *
+ * @author ben
+ *
+ */
+public class ASCIITableFactoryTest {
+	private static final int		TABLE_COUNT		= 48;
+	private static final int		THREAD_COUNT	= 8;
+
+	private static ASCIITableHeader[][]	headers;
+	private static String[][][]			tables;
+
+	// What one thread gets from fresh renderers
+	private static String[]				expectedText;
+	private static String[]				expectedHTML;
+
+	private static ForkJoinPool			pool;
+	private static ExecutorService		threads;
+
+	@BeforeClass
+	public static void setUp() {
+		Random random = new Random(1);
+
+		headers = new ASCIITableHeader[TABLE_COUNT][];
+		tables = new String[TABLE_COUNT][][];
+
+		expectedText = new String[TABLE_COUNT];
+		expectedHTML = new String[TABLE_COUNT];
+
+		IASCIITable text = new SimpleASCIITableImpl();
+		IASCIITable html = new HTMLASCIITableImpl();
+
+		for (int i = 0; i < TABLE_COUNT; i++) {
+			int columnCount = 1 + random.nextInt(6);
+
+			// Every so often, a table big enough to be rendered in parallel
+			int rowCount = 1 + random.nextInt(40);
+
+			if (i % 8 == 0) {
+				rowCount += ParallelASCIITableImpl.CHUNK_SIZE * 2;
+			}
+
+			headers[i] = TestTables.makeHeaders(random, columnCount);
+			tables[i] = TestTables.makeData(random, rowCount, columnCount);
+
+			expectedText[i] = text.getTable(headers[i], tables[i]);
+			expectedHTML[i] = html.getTable(headers[i], tables[i]);
+		}
+
+		pool = new ForkJoinPool(3);
+		threads = Executors.newFixedThreadPool(THREAD_COUNT);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		threads.shutdown();
+		pool.shutdown();
+	}
+
+	/*
+	 * Render every table from every thread at once, each thread in its
+	 * own order and alternating between building strings and writing
+	 * out, and check each against what one thread got
+	 */
+	private static void assertSameFromThreads(final IASCIITable renderer,
+			final String[] expected) throws Exception {
+		final CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<String[]>> results = new ArrayList<>(THREAD_COUNT);
+
+		for (int t = 0; t < THREAD_COUNT; t++) {
+			final List<Integer> order = new ArrayList<>(TABLE_COUNT);
+
+			for (int i = 0; i < TABLE_COUNT; i++) {
+				order.add(i);
+			}
+
+			Collections.shuffle(order, new Random(t));
+
+			final boolean isWriting = t % 2 == 1;
+
+			results.add(threads.submit(new Callable<String[]>() {
+				@Override
+				public String[] call() throws Exception {
+					String[] rendered = new String[TABLE_COUNT];
+
+					start.await();
+
+					for (int i : order) {
+						if (isWriting) {
+							StringWriter writer = new StringWriter();
+
+							renderer.renderTo(writer, headers[i], tables[i]);
+
+							rendered[i] = writer.toString();
+						} else {
+							rendered[i] = renderer.getTable(headers[i],
+									tables[i]);
+						}
+					}
+
+					return rendered;
+				}
+			}));
+		}
+
+		start.countDown();
+
+		for (Future<String[]> result : results) {
+			String[] rendered = result.get();
+
+			for (int i = 0; i < TABLE_COUNT; i++) {
+				assertEquals("Table " + i, expected[i], rendered[i]);
+			}
+		}
+	}
+
+	@Test
+	public void testSameInstances() {
+		assertSame(ASCIITableFactory.getDefault(),
+				ASCIITableFactory.getDefault());
+		assertSame(ASCIITableFactory.getHTML(), ASCIITableFactory.getHTML());
+		assertSame(ASCIITableFactory.getParallel(),
+				ASCIITableFactory.getParallel());
+	}
+
+	@Test
+	public void testSharedRenderers() throws Exception {
+		assertSameFromThreads(ASCIITableFactory.getDefault(), expectedText);
+		assertSameFromThreads(ASCIITableFactory.getHTML(), expectedHTML);
+		assertSameFromThreads(ASCIITableFactory.getParallel(), expectedText);
+	}
+
+	@Test
+	public void testSharedBufferPool() throws Exception {
+		// Small enough that builders are both reused and dropped
+		StringBuilderPool bufferPool = new StringBuilderPool(2, 4096);
+
+		IASCIITable text = new SimpleASCIITableImpl(null, bufferPool);
+		IASCIITable html = new HTMLASCIITableImpl(
+				HTMLStyleValues.STYLE_INLINE, null, bufferPool);
+		IASCIITable parallel = new ParallelASCIITableImpl(pool, null,
+				bufferPool);
+
+		assertSameFromThreads(text, expectedText);
+		assertSameFromThreads(html, expectedHTML);
+		assertSameFromThreads(parallel, expectedText);
+	}
+}
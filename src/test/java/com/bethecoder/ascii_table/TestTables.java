@@ -0,0 +1,109 @@
+package com.bethecoder.ascii_table;
+
+import java.util.Random;
+
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+
+/**
+ * Makes random tables for tests that check renderers against each other
+ *
+ * @author ben
+ *
+ */
+public final class TestTables {
+	/**
+	 * Cells that are hard to render: empty, padded, long, in need of
+	 * escaping, wide, accented and outside the basic plane
+	 */
+	public static final String[] WORDS = { "", "a", "abc", "Hello, World",
+			"  padded  ", "12345678901234567890", "<b>&amp;</b>", "中文",
+			"é", "😀" };
+
+	private TestTables() {
+	}
+
+	/**
+	 * Make headers named "Column 0" on, all aligned the same way
+	 *
+	 * @param columnCount
+	 *            The number of headers
+	 * @param headerAlign
+	 *            The alignment of the headers
+	 * @param dataAlign
+	 *            The alignment of the data
+	 * @return The headers
+	 */
+	public static ASCIITableHeader[] makeHeaders(int columnCount,
+			AlignmentValues headerAlign, AlignmentValues dataAlign) {
+		ASCIITableHeader[] headers = new ASCIITableHeader[columnCount];
+
+		for (int i = 0; i < columnCount; i++) {
+			headers[i] = new ASCIITableHeader("Column " + i, dataAlign,
+					headerAlign);
+		}
+
+		return headers;
+	}
+
+	/**
+	 * Make headers named "Column 0" on, each aligned at random
+	 *
+	 * @param random
+	 *            Where to get the alignments from
+	 * @param columnCount
+	 *            The number of headers
+	 * @return The headers
+	 */
+	public static ASCIITableHeader[] makeHeaders(Random random,
+			int columnCount) {
+		AlignmentValues[] aligns = AlignmentValues.values();
+
+		ASCIITableHeader[] headers = new ASCIITableHeader[columnCount];
+
+		for (int i = 0; i < columnCount; i++) {
+			headers[i] = new ASCIITableHeader("Column " + i,
+					aligns[random.nextInt(aligns.length)],
+					aligns[random.nextInt(aligns.length)]);
+		}
+
+		return headers;
+	}
+
+	/**
+	 * Make a table of random numbers and {@link #WORDS}, with some rows
+	 * shorter than others. Numbers get longer from column to column.
+	 *
+	 * @param random
+	 *            Where to get the cells from
+	 * @param rowCount
+	 *            The number of rows
+	 * @param columnCount
+	 *            The most cells in a row
+	 * @return The table
+	 */
+	public static String[][] makeData(Random random, int rowCount,
+			int columnCount) {
+		String[][] data = new String[rowCount][];
+
+		for (int i = 0; i < rowCount; i++) {
+			int length = columnCount;
+
+			if (random.nextInt(10) == 0) {
+				length = random.nextInt(columnCount + 1);
+			}
+
+			data[i] = new String[length];
+
+			for (int j = 0; j < length; j++) {
+				if (random.nextInt(3) == 0) {
+					data[i][j] = WORDS[random.nextInt(WORDS.length)];
+				} else {
+					data[i][j] = Long.toString(random.nextLong() >>> (64 - 4
+							* (j + 2)));
+				}
+			}
+		}
+
+		return data;
+	}
+}
@@ -0,0 +1,111 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.Test;
+
+/**
+ * Checks which formatter a registry picks for a value, and that
+ * registering a formatter is seen by lookups that were already cached or
+ * that run at the same time
+ *
+ * @author ben
+ *
+ */
+public class CellFormatterRegistryTest {
+	private static class Base {
+		@Override
+		public String toString() {
+			return "base";
+		}
+	}
+
+	private static class Sub extends Base {
+		@Override
+		public String toString() {
+			return "sub";
+		}
+	}
+
+	@Test
+	public void testDefaults() {
+		CellFormatterRegistry registry = CellFormatterRegistry.getDefault();
+
+		NumberFormat numberFormat = NumberFormat.getInstance();
+
+		assertEquals(numberFormat.format(1234567), registry.format(1234567));
+		assertEquals(numberFormat.format(1234567L), registry
+				.format(Long.valueOf(1234567)));
+		assertEquals(numberFormat.format(new BigDecimal("1234.5")), registry
+				.format(1234.5));
+
+		// Strings are never parsed as numbers
+		assertEquals("1234567", registry.format("1234567"));
+
+		assertEquals("sub", registry.format(new Sub()));
+		assertNull(registry.format((Object) null));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testDefaultFrozen() {
+		CellFormatterRegistry.getDefault().register(Base.class,
+				value -> "never");
+	}
+
+	@Test
+	public void testRegisterAfterFormat() {
+		CellFormatterRegistry registry = new CellFormatterRegistry();
+
+		// Cache the default formatter for the subtype
+		assertEquals("sub", registry.format(new Sub()));
+
+		registry.register(Base.class, value -> "registered");
+
+		assertEquals("registered", registry.format(new Sub()));
+		assertEquals("registered", registry.format(new Base()));
+
+		// The primitive shortcuts give way to a registered formatter
+		registry.register(Integer.class, value -> "int");
+
+		assertEquals("int", registry.format(42));
+	}
+
+	@Test
+	public void testRegisterWhileFormatting() throws Exception {
+		final Sub sub = new Sub();
+
+		for (int i = 0; i < 2000; i++) {
+			final CellFormatterRegistry registry = new CellFormatterRegistry();
+			final CyclicBarrier start = new CyclicBarrier(2);
+
+			// Line the first lookup, which has to resolve and cache the
+			// formatter, up with the register
+			Thread formatter = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException | BrokenBarrierException ex) {
+					throw new IllegalStateException(ex);
+				}
+
+				registry.format(sub);
+			});
+
+			formatter.start();
+
+			start.await();
+			registry.register(Base.class, value -> "registered");
+
+			formatter.join();
+
+			// A lookup that started before the register mustn't leave the
+			// old formatter cached
+			assertEquals("registered", registry.format(sub));
+		}
+	}
+}
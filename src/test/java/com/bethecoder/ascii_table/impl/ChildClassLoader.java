@@ -0,0 +1,84 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A class loader that loads its own copy of one class, and leaves every
+ * other class to its parent, the way a plugin or web app loader would.
+ * Its copy of the class can't be seen from the parent.
+ *
+ * @author ben
+ *
+ */
+final class ChildClassLoader extends ClassLoader {
+	// The name of the class to load a copy of
+	private final String	className;
+
+	private ChildClassLoader(ClassLoader parent, String className) {
+		super(parent);
+
+		this.className = className;
+	}
+
+	/**
+	 * Load a copy of a class in a new child of its class loader
+	 *
+	 * @param type
+	 *            The class to copy
+	 * @return The copy of the class
+	 * @throws ClassNotFoundException
+	 *             If the class can't be copied
+	 */
+	static Class<?> loadCopy(Class<?> type) throws ClassNotFoundException {
+		return new ChildClassLoader(type.getClassLoader(), type.getName())
+				.loadClass(type.getName());
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve)
+			throws ClassNotFoundException {
+		if (!name.equals(className)) {
+			return super.loadClass(name, resolve);
+		}
+
+		synchronized (getClassLoadingLock(name)) {
+			Class<?> loaded = findLoadedClass(name);
+
+			if (loaded == null) {
+				loaded = findClass(name);
+			}
+
+			if (resolve) {
+				resolveClass(loaded);
+			}
+
+			return loaded;
+		}
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		String resource = name.replace('.', '/') + ".class";
+
+		try (InputStream in = getParent().getResourceAsStream(resource)) {
+			if (in == null) {
+				throw new ClassNotFoundException(name);
+			}
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+			byte[] buffer = new byte[4096];
+			int read;
+
+			while ((read = in.read(buffer)) > 0) {
+				bytes.write(buffer, 0, read);
+			}
+
+			return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+		} catch (IOException ioex) {
+			throw new ClassNotFoundException(name, ioex);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Checks that bean properties are read into tables, whichever class
+ * loader the beans come from
+ * 
+ * @author ben
+ *
+ */
+public class CollectionASCIITableAwareTest {
+	/**
+	 * A bean to put in tables
+	 */
+	public static class Bean {
+		public String getName() {
+			return "child";
+		}
+
+		public int getSize() {
+			return 3;
+		}
+
+		public boolean isActive() {
+			return true;
+		}
+	}
+
+	private static final String EXPECTED = "+-------+------+--------+\n"
+			+ "|  NAME | SIZE | ACTIVE |\n"
+			+ "+-------+------+--------+\n"
+			+ "| child |    3 |   true |\n"
+			+ "| child |    3 |   true |\n"
+			+ "+-------+------+--------+\n";
+
+	private static List<Object> makeBeans(Class<?> beanClass)
+			throws ReflectiveOperationException {
+		List<Object> beans = new ArrayList<>();
+
+		beans.add(beanClass.getConstructor().newInstance());
+		beans.add(beanClass.getConstructor().newInstance());
+
+		return beans;
+	}
+
+	@Test
+	public void testBeans() throws ReflectiveOperationException {
+		assertEquals(EXPECTED, new SimpleASCIITableImpl()
+				.getTable(new CollectionASCIITableAware(makeBeans(Bean.class),
+						"name", "size", "active")));
+	}
+
+	@Test
+	public void testBeansFromChildClassLoader()
+			throws ReflectiveOperationException {
+		Class<?> childBean = ChildClassLoader.loadCopy(Bean.class);
+
+		assertNotSame(Bean.class, childBean);
+
+		assertEquals(EXPECTED, new SimpleASCIITableImpl()
+				.getTable(new CollectionASCIITableAware(makeBeans(childBean),
+						"name", "size", "active")));
+	}
+}
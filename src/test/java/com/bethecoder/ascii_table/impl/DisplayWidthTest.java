@@ -0,0 +1,145 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks how many columns characters and text take up, how text is fitted
+ * into a number of columns, and that cached widths stay right when strings
+ * share a cache slot
+ *
+ * @author ben
+ *
+ */
+public class DisplayWidthTest {
+	@Test
+	public void testASCII() {
+		assertEquals(0, DisplayWidth.of(""));
+		assertEquals(12, DisplayWidth.of("Hello, World"));
+		assertEquals(1, DisplayWidth.of('\u007F'));
+
+		assertTrue(DisplayWidth.isASCII(""));
+		assertTrue(DisplayWidth.isASCII("Hello, World\u007F"));
+		assertFalse(DisplayWidth.isASCII("café"));
+		assertFalse(DisplayWidth.isASCII("中"));
+	}
+
+	@Test
+	public void testWideRanges() {
+		// Hangul Jamo initial consonants, on both edges and either side
+		assertEquals(1, DisplayWidth.of(0x10FF));
+		assertEquals(2, DisplayWidth.of(0x1100));
+		assertEquals(2, DisplayWidth.of(0x1120));
+		assertEquals(2, DisplayWidth.of(0x115F));
+
+		// CJK ideographs, Hangul syllables and fullwidth forms
+		assertEquals(2, DisplayWidth.of(0x4E00));
+		assertEquals(2, DisplayWidth.of(0x9FFF));
+		assertEquals(2, DisplayWidth.of(0xAC00));
+		assertEquals(2, DisplayWidth.of(0xD7A3));
+		assertEquals(2, DisplayWidth.of(0xFF21));
+		assertEquals(1, DisplayWidth.of(0xFF61));
+
+		assertEquals(4, DisplayWidth.of("中文"));
+		assertEquals(4, DisplayWidth.of("한글"));
+		assertEquals(5, DisplayWidth.of("aＡＢ"));
+	}
+
+	@Test
+	public void testZeroWidth() {
+		// Combining acute accent, and a Hangul vowel joining its consonant
+		assertEquals(0, DisplayWidth.of(0x0301));
+		assertEquals(0, DisplayWidth.of(0x1161));
+
+		assertEquals(1, DisplayWidth.of("e\u0301"));
+		assertEquals(2, DisplayWidth.of("\u1100\u1161"));
+
+		// Zero width space
+		assertEquals(2, DisplayWidth.of("a\u200Bb"));
+	}
+
+	@Test
+	public void testSurrogatePairs() {
+		// An emoji, and an ideograph from extension B
+		assertEquals(2, DisplayWidth.of("😀"));
+		assertEquals(2, DisplayWidth.of("𠀀"));
+		assertEquals(2, DisplayWidth.of(0x1F600));
+		assertEquals(2, DisplayWidth.of(0x20000));
+
+		assertEquals(6, DisplayWidth.of("a😀b𠀀"));
+	}
+
+	@Test
+	public void testRange() {
+		String text = "ab中c😀d";
+
+		assertEquals(2, DisplayWidth.of(text, 0, 2));
+		assertEquals(3, DisplayWidth.of(text, 1, 3));
+		assertEquals(3, DisplayWidth.of(text, 2, 4));
+		assertEquals(2, DisplayWidth.of(text, 4, 6));
+		assertEquals(0, DisplayWidth.of(text, 3, 3));
+		assertEquals(DisplayWidth.of(text), DisplayWidth.of(text, 0,
+				text.length()));
+	}
+
+	@Test
+	public void testFit() {
+		assertEquals(3, DisplayWidth.fit("abcdef", 0, 3));
+		assertEquals(5, DisplayWidth.fit("abcdef", 2, 3));
+		assertEquals(6, DisplayWidth.fit("abcdef", 0, 10));
+		assertEquals(0, DisplayWidth.fit("abcdef", 0, 0));
+
+		// A wide character is never split in half
+		String wide = "a中文";
+
+		assertEquals(1, DisplayWidth.fit(wide, 0, 2));
+		assertEquals(2, DisplayWidth.fit(wide, 0, 3));
+		assertEquals(2, DisplayWidth.fit(wide, 0, 4));
+		assertEquals(3, DisplayWidth.fit(wide, 0, 5));
+		assertEquals(1, DisplayWidth.fit(wide, 1, 1));
+
+		// Nor is a surrogate pair
+		String emoji = "a😀b";
+
+		assertEquals(1, DisplayWidth.fit(emoji, 0, 2));
+		assertEquals(3, DisplayWidth.fit(emoji, 0, 3));
+		assertEquals(4, DisplayWidth.fit(emoji, 0, 4));
+
+		// A combining mark stays with the character before it
+		String accented = "e\u0301x";
+
+		assertEquals(2, DisplayWidth.fit(accented, 0, 1));
+		assertEquals(3, DisplayWidth.fit(accented, 0, 2));
+	}
+
+	@Test
+	public void testCache() {
+		String wide = "中文";
+
+		// Find a narrower string that goes in the same one of the 1024 slots
+		String narrow = null;
+
+		for (int i = 0; narrow == null; i++) {
+			String candidate = "é" + i;
+
+			if (((candidate.hashCode() ^ wide.hashCode()) & 1023) == 0) {
+				narrow = candidate;
+			}
+		}
+
+		int narrowWidth = narrow.length();
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(4, DisplayWidth.of(wide));
+			assertEquals(4, DisplayWidth.of(wide));
+			assertEquals(narrowWidth, DisplayWidth.of(narrow));
+			assertEquals(narrowWidth, DisplayWidth.of(narrow));
+
+			// An equal string that isn't the same instance
+			assertEquals(4, DisplayWidth.of(new String(wide)));
+		}
+	}
+}
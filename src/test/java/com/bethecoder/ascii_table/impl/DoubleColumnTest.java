@@ -0,0 +1,96 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.Test;
+
+/**
+ * Checks that doubles are rounded half up from the decimal
+ * {@link Double#toString(double)} writes, and measured as wide as they are
+ * written
+ *
+ * @author ben
+ *
+ */
+public class DoubleColumnTest {
+	/*
+	 * Write one value, checking it measures as long as it's written
+	 */
+	private static String write(int decimalPlaces, double value) {
+		DoubleColumn column = new DoubleColumn("Value", decimalPlaces, value);
+
+		String text = column.getText(0);
+
+		assertEquals(text, text.length(), column.measure(0));
+
+		return text;
+	}
+
+	@Test
+	public void testHalfUp() {
+		// None of these are exact in binary, and most are just under half
+		assertEquals("0.13", write(2, 0.125));
+		assertEquals("2.68", write(2, 2.675));
+		assertEquals("1.01", write(2, 1.005));
+		assertEquals("1.00", write(2, 1.0049));
+		assertEquals("0.1", write(1, 0.05));
+
+		assertEquals("1", write(0, 0.5));
+		assertEquals("3", write(0, 2.5));
+		assertEquals("0", write(0, 0.49));
+	}
+
+	@Test
+	public void testNegatives() {
+		// Halves go away from zero
+		assertEquals("-0.13", write(2, -0.125));
+		assertEquals("-2.68", write(2, -2.675));
+		assertEquals("-1.01", write(2, -1.005));
+		assertEquals("-1", write(0, -0.5));
+		assertEquals("-3", write(0, -2.5));
+
+		// Rounding to zero loses the sign
+		assertEquals("0.00", write(2, -0.001));
+	}
+
+	@Test
+	public void testLeadingZeros() {
+		assertEquals("1.050", write(3, 1.05));
+		assertEquals("0.001", write(3, 0.001));
+		assertEquals("-0.000000001", write(9, -0.000000001));
+		assertEquals("12", write(0, 12));
+	}
+
+	@Test
+	public void testNotWritable() {
+		assertEquals("NaN", write(2, Double.NaN));
+		assertEquals("Infinity", write(2, Double.POSITIVE_INFINITY));
+		assertEquals("-Infinity", write(2, Double.NEGATIVE_INFINITY));
+		assertEquals("1.0E20", write(2, 1e20));
+	}
+
+	@Test
+	public void testSameAsBigDecimal() {
+		// Every value with three decimal places from -20 to 20
+		for (int places = 0; places <= 2; places++) {
+			for (int i = -20000; i <= 20000; i++) {
+				double value = i / 1000.0;
+
+				String expected = BigDecimal.valueOf(value)
+						.setScale(places, RoundingMode.HALF_UP)
+						.toPlainString();
+
+				assertEquals(Double.toString(value), expected,
+						write(places, value));
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyPlaces() {
+		new DoubleColumn("Value", 10);
+	}
+}
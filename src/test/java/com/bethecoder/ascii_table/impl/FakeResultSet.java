@@ -0,0 +1,149 @@
+package com.bethecoder.ascii_table.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+
+/**
+ * A result set over rows held in memory, for testing JDBC sources without
+ * a database. It only answers the calls the sources make, and counts how
+ * often its statement is cancelled and it is closed.
+ *
+ * @author ben
+ *
+ */
+final class FakeResultSet implements InvocationHandler {
+	private final String[]		labels;
+	private final int[]			types;
+	private final Object[][]	rows;
+	private final boolean		isScrollable;
+
+	// The current row, from 1, or 0 before the first
+	private int					row;
+	private boolean				wasNull;
+
+	int							cancelCount;
+	int							closeCount;
+
+	/**
+	 * Create a result set
+	 *
+	 * @param labels
+	 *            The label of each column
+	 * @param types
+	 *            The {@link java.sql.Types} of each column
+	 * @param rows
+	 *            The values in each row
+	 * @param isScrollable
+	 *            Whether the cursor can move backwards as well as forwards
+	 */
+	FakeResultSet(String[] labels, int[] types, Object[][] rows,
+			boolean isScrollable) {
+		this.labels = labels;
+		this.types = types;
+		this.rows = rows;
+		this.isScrollable = isScrollable;
+	}
+
+	/**
+	 * Get the result set itself
+	 *
+	 * @return The result set
+	 */
+	ResultSet asResultSet() {
+		return (ResultSet) Proxy.newProxyInstance(getClass()
+				.getClassLoader(), new Class<?>[] { ResultSet.class }, this);
+	}
+
+	private Object get(Object column) {
+		Object value = rows[row - 1][(Integer) column - 1];
+
+		wasNull = value == null;
+
+		return value;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) {
+		switch (method.getName()) {
+			case "getMetaData":
+				return Proxy.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] { ResultSetMetaData.class },
+						(metaData, metaMethod, metaArgs) -> {
+							switch (metaMethod.getName()) {
+								case "getColumnCount":
+									return labels.length;
+								case "getColumnLabel":
+									return labels[(Integer) metaArgs[0] - 1];
+								case "getColumnType":
+									return types[(Integer) metaArgs[0] - 1];
+								case "isSigned":
+									return true;
+								default:
+									throw new UnsupportedOperationException(
+											metaMethod.getName());
+							}
+						});
+			case "getStatement":
+				return Proxy.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] { Statement.class },
+						(statement, statementMethod, statementArgs) -> {
+							if (!statementMethod.getName().equals("cancel")) {
+								throw new UnsupportedOperationException(
+										statementMethod.getName());
+							}
+
+							cancelCount++;
+
+							return null;
+						});
+			case "next":
+				if (row < rows.length) {
+					row++;
+
+					return true;
+				}
+
+				row = rows.length + 1;
+
+				return false;
+			case "last":
+				row = rows.length;
+
+				return rows.length > 0;
+			case "getRow":
+				return row > rows.length ? 0 : row;
+			case "getType":
+				return isScrollable ? ResultSet.TYPE_SCROLL_INSENSITIVE
+						: ResultSet.TYPE_FORWARD_ONLY;
+			case "getLong": {
+				Object value = get(args[0]);
+
+				return value == null ? 0L : ((Number) value).longValue();
+			}
+			case "getDouble": {
+				Object value = get(args[0]);
+
+				return value == null ? 0.0 : ((Number) value).doubleValue();
+			}
+			case "getString": {
+				Object value = get(args[0]);
+
+				return value == null ? null : value.toString();
+			}
+			case "getObject":
+				return get(args[0]);
+			case "wasNull":
+				return wasNull;
+			case "close":
+				closeCount++;
+
+				return null;
+			default:
+				throw new UnsupportedOperationException(method.getName());
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.spec.IASCIITableAware;
+
+/**
+ * Checks the HTML renderer writes a table from a source with headers but
+ * no rows
+ *
+ * @author ben
+ *
+ */
+public class HTMLASCIITableImplTest {
+	private static IASCIITableAware<String> withoutRows() {
+		return new IASCIITableAware<String>() {
+			@Override
+			public String formatData(ASCIITableHeader header, int row,
+					int col, String data) {
+				return data;
+			}
+
+			@Override
+			public List<List<String>> getData() {
+				return Collections.emptyList();
+			}
+
+			@Override
+			public List<ASCIITableHeader> getHeaders() {
+				return Arrays.asList(new ASCIITableHeader("Name"),
+						new ASCIITableHeader("Size"));
+			}
+		};
+	}
+
+	@Test
+	public void testHeadersWithoutRows() throws IOException {
+		HTMLASCIITableImpl renderer = new HTMLASCIITableImpl();
+
+		String table = renderer.getTable(withoutRows());
+
+		assertTrue(table, table.contains(">Name</th>"));
+		assertTrue(table, table.contains(">Size</th>"));
+		assertTrue(table, table.endsWith("<tbody></tbody></table>"));
+
+		StringWriter writer = new StringWriter();
+
+		renderer.renderTo(writer, withoutRows());
+
+		assertEquals(table, writer.toString());
+	}
+}
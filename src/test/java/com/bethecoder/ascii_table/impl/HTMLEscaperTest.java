@@ -0,0 +1,92 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Checks which characters are escaped for HTML, and that everything else,
+ * including text that isn't ASCII, is written as it is
+ *
+ * @author ben
+ *
+ */
+public class HTMLEscaperTest {
+	private static String escape(CharSequence text) throws IOException {
+		StringBuilder out = new StringBuilder();
+
+		HTMLEscaper.escapeTo(out, text);
+
+		return out.toString();
+	}
+
+	@Test
+	public void testSpecialCharacters() throws IOException {
+		assertEquals("&lt;", escape("<"));
+		assertEquals("&gt;", escape(">"));
+		assertEquals("&amp;", escape("&"));
+		assertEquals("&quot;", escape("\""));
+		assertEquals("&#39;", escape("'"));
+
+		assertEquals("&lt;b title=&quot;Tom&#39;s&quot;&gt;A &amp; B&lt;/b&gt;",
+				escape("<b title=\"Tom's\">A & B</b>"));
+		assertEquals("&amp;amp;", escape("&amp;"));
+	}
+
+	@Test
+	public void testOtherASCII() throws IOException {
+		for (char ch = 0; ch < 128; ch++) {
+			if ("<>&\"'".indexOf(ch) < 0) {
+				assertEquals(String.valueOf(ch), escape(String.valueOf(ch)));
+			}
+		}
+	}
+
+	@Test
+	public void testNotASCII() throws IOException {
+		// Written raw, with no numeric character references
+		assertEquals("中文 é 😀 ½", escape("中文 é 😀 ½"));
+		assertEquals("中&lt;文&gt;", escape("中<文>"));
+
+		// Even half a surrogate pair goes through untouched
+		assertEquals("a\uD83Db", escape("a\uD83Db"));
+	}
+
+	@Test
+	public void testNothingToEscape() throws IOException {
+		final CharSequence[] appended = new CharSequence[1];
+
+		String text = "Hello, World";
+
+		HTMLEscaper.escapeTo(new Appendable() {
+			@Override
+			public Appendable append(CharSequence csq) {
+				appended[0] = csq;
+
+				return this;
+			}
+
+			@Override
+			public Appendable append(CharSequence csq, int start, int end) {
+				throw new AssertionError("Text was copied");
+			}
+
+			@Override
+			public Appendable append(char c) {
+				throw new AssertionError("Text was copied");
+			}
+		}, text);
+
+		// The text was passed through whole
+		assertSame(text, appended[0]);
+	}
+
+	@Test
+	public void testEmptyAndNull() throws IOException {
+		assertEquals("", escape(""));
+		assertEquals("null", escape(null));
+	}
+}
@@ -0,0 +1,217 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.TestTables;
+
+/**
+ * Checks that a model's rows and column widths stay the same as measuring
+ * its rows from scratch, through every kind of change, including when its
+ * rows wrap around the ring they're kept in
+ *
+ * @author ben
+ *
+ */
+public class HistogramASCIITableModelTest {
+	private static final ASCIITableHeader[] HEADERS = {
+			new ASCIITableHeader("A"), new ASCIITableHeader("B") };
+
+	/*
+	 * Check a model holds the given rows, and has the widths and table
+	 * measuring them from scratch would give
+	 */
+	private static void assertSameAs(List<String[]> expected,
+			HistogramASCIITableModel model) throws IOException {
+		assertEquals(expected.size(), model.getRowCount());
+
+		for (int i = 0; i < expected.size(); i++) {
+			assertArrayEquals(expected.get(i), model.getRow(i));
+		}
+
+		int[] widths = new int[model.getColumnWidths().length];
+
+		for (String[] row : expected) {
+			for (int i = 0; i < row.length; i++) {
+				widths[i] = Math.max(widths[i], TableLayout.measure(row[i]));
+			}
+		}
+
+		assertArrayEquals(widths, model.getColumnWidths());
+
+		if (!expected.isEmpty()) {
+			StringBuilder table = new StringBuilder();
+
+			new SimpleASCIITableImpl().renderTo(table, new TableLayout(
+					HEADERS, widths), expected.toArray(new String[0][]));
+
+			assertEquals(table.toString(), model.getTable());
+		}
+	}
+
+	@Test
+	public void testSlidingWindow() throws IOException {
+		HistogramASCIITableModel model = new HistogramASCIITableModel(
+				HEADERS);
+
+		List<String[]> expected = new ArrayList<>();
+
+		// Keep a window of rows as new ones come in, wrapping the ring
+		for (int i = 0; i < 200; i++) {
+			String[] row = { "row " + i, i % 7 == 0 ? "wide 中文" : "x" };
+
+			model.add(row);
+			expected.add(row);
+
+			if (expected.size() > 10) {
+				model.removeFirst(3);
+				expected.subList(0, 3).clear();
+			}
+
+			assertSameAs(expected, model);
+		}
+
+		model.removeFirst(model.getRowCount());
+		expected.clear();
+
+		assertSameAs(expected, model);
+	}
+
+	@Test
+	public void testGrowsWhileWrapped() throws IOException {
+		HistogramASCIITableModel model = new HistogramASCIITableModel(
+				HEADERS);
+
+		List<String[]> expected = new ArrayList<>();
+
+		for (int round = 0; round < 5; round++) {
+			// Drop most of the rows, then add more than there's room for
+			model.removeFirst(expected.size() * 3 / 4);
+			expected.subList(0, expected.size() * 3 / 4).clear();
+
+			for (int i = 0; i < 13 << round; i++) {
+				String[] row = { round + "/" + i, "" };
+
+				model.add(row);
+				expected.add(row);
+			}
+
+			assertSameAs(expected, model);
+
+			// Remove from either side of the middle
+			int middle = expected.size() / 2;
+
+			assertArrayEquals(expected.remove(middle - 1),
+					model.remove(middle - 1));
+			assertArrayEquals(expected.remove(middle),
+					model.remove(middle));
+
+			assertSameAs(expected, model);
+		}
+	}
+
+	@Test
+	public void testRandomChanges() throws IOException {
+		Random random = new Random(3);
+
+		HistogramASCIITableModel model = new HistogramASCIITableModel(
+				HEADERS);
+
+		List<String[]> expected = new ArrayList<>();
+
+		for (int i = 0; i < 2000; i++) {
+			int rowCount = expected.size();
+
+			String[] row = TestTables.makeData(random, 1, 3)[0];
+
+			switch (rowCount == 0 ? 0 : random.nextInt(6)) {
+				case 0:
+				case 1:
+					model.add(row);
+					expected.add(row);
+					break;
+				case 2: {
+					int index = random.nextInt(rowCount);
+
+					assertArrayEquals(expected.remove(index),
+							model.remove(index));
+					break;
+				}
+				case 3: {
+					int count = random.nextInt(Math.min(rowCount, 5) + 1);
+
+					model.removeFirst(count);
+					expected.subList(0, count).clear();
+					break;
+				}
+				case 4: {
+					int index = random.nextInt(rowCount);
+
+					assertArrayEquals(expected.set(index, row), model.set(
+							index, row));
+					break;
+				}
+				default: {
+					int index = random.nextInt(rowCount);
+
+					String[] cells = expected.get(index).clone();
+
+					if (cells.length > 0) {
+						int column = random.nextInt(cells.length);
+
+						cells[column] = TestTables.WORDS[random
+								.nextInt(TestTables.WORDS.length)];
+
+						model.set(index, column, cells[column]);
+						expected.set(index, cells);
+					}
+					break;
+				}
+			}
+
+			assertSameAs(expected, model);
+		}
+	}
+
+	@Test
+	public void testCopiesRows() {
+		HistogramASCIITableModel model = new HistogramASCIITableModel(
+				HEADERS);
+
+		String[] row = { "a", "b" };
+
+		model.add(row);
+
+		row[0] = "changed";
+		model.getRow(0)[1] = "changed";
+
+		assertArrayEquals(new String[] { "a", "b" }, model.getRow(0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRemoveTooMany() {
+		HistogramASCIITableModel model = new HistogramASCIITableModel(
+				HEADERS);
+
+		model.add("a", "b");
+		model.removeFirst(2);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRowOutOfRange() {
+		HistogramASCIITableModel model = new HistogramASCIITableModel(
+				HEADERS);
+
+		// Slots past the end of the rows are still in the ring
+		model.add("a", "b");
+		model.getRow(1);
+	}
+}
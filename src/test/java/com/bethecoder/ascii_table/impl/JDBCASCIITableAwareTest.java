@@ -0,0 +1,86 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Types;
+import java.text.NumberFormat;
+
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.spec.IASCIITable;
+
+/**
+ * Checks that tables from a JDBC result set come out the same whether
+ * renderers format rows straight from the columns or through formatData
+ *
+ * @author ben
+ *
+ */
+public class JDBCASCIITableAwareTest {
+	private static final String[]	LABELS	= { "id", "total", "price",
+			"name" };
+	private static final int[]		TYPES	= { Types.INTEGER, Types.BIGINT,
+			Types.DOUBLE, Types.VARCHAR };
+
+	private static final Object[][]	ROWS	= {
+			{ 1, 1234567890123L, 2.5, "first" },
+			{ -42, -7L, 1234.125, "中文" },
+			{ null, null, null, null },
+			{ 4294967295L, 0L, 0.1, "" } };
+
+	private static JDBCASCIITableAware makeSource(boolean isSubclass) {
+		FakeResultSet rows = new FakeResultSet(LABELS, TYPES, ROWS, false);
+
+		if (isSubclass) {
+			// Subclasses always go through getData and formatData
+			return new JDBCASCIITableAware(rows.asResultSet()) {
+			};
+		}
+
+		return new JDBCASCIITableAware(rows.asResultSet());
+	}
+
+	private static void assertSameTable(IASCIITable renderer) {
+		assertEquals(renderer.getTable(makeSource(true)),
+				renderer.getTable(makeSource(false)));
+	}
+
+	@Test
+	public void testFormattingColumns() {
+		assertTrue(makeSource(false).isFormattingColumns());
+		assertFalse(makeSource(true).isFormattingColumns());
+	}
+
+	@Test
+	public void testSameAsFormatData() {
+		assertSameTable(new SimpleASCIITableImpl());
+		assertSameTable(new HTMLASCIITableImpl());
+	}
+
+	@Test
+	public void testFormatRow() {
+		String[] cells = new String[LABELS.length];
+
+		JDBCASCIITableAware source = makeSource(false);
+
+		source.formatRow(0, cells);
+
+		assertEquals("1", cells[0]);
+		assertEquals(NumberFormat.getInstance().format(1234567890123L),
+				cells[1]);
+		assertEquals("first", cells[3]);
+
+		source.formatRow(2, cells);
+
+		for (String cell : cells) {
+			assertEquals("null", cell);
+		}
+
+		source.formatRow(3, cells);
+
+		assertEquals(NumberFormat.getInstance().format(4294967295L),
+				cells[0]);
+	}
+}
@@ -0,0 +1,158 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.text.NumberFormat;
+
+import org.junit.Test;
+
+/**
+ * Checks that JDBC sources stop reading at their row and byte limits,
+ * cancel the query without closing the caller's result set, and report
+ * how many rows were left out
+ *
+ * @author ben
+ *
+ */
+public class JDBCReadBudgetTest {
+	private static FakeResultSet makeRows(int rowCount,
+			boolean isScrollable) {
+		Object[][] rows = new Object[rowCount][];
+
+		for (int i = 0; i < rowCount; i++) {
+			rows[i] = new Object[] { i };
+		}
+
+		return new FakeResultSet(new String[] { "n" },
+				new int[] { Types.INTEGER }, rows, isScrollable);
+	}
+
+	/*
+	 * Read rows of eight bytes until the budget runs out, returning how
+	 * many were read
+	 */
+	private static int readAll(JDBCReadBudget budget, FakeResultSet rows)
+			throws SQLException {
+		int rowCount = 0;
+
+		while (budget.next(rows.asResultSet())) {
+			budget.countRow(8);
+
+			rowCount++;
+		}
+
+		return rowCount;
+	}
+
+	@Test
+	public void testRowBudget() throws SQLException {
+		FakeResultSet rows = makeRows(10, false);
+
+		JDBCReadBudget budget = new JDBCReadBudget(3, 0);
+
+		assertEquals(3, readAll(budget, rows));
+		assertTrue(budget.isTruncated());
+
+		// A forward only cursor can't tell how many rows are left
+		assertEquals(-1, budget.getOmittedRowCount());
+
+		assertEquals(1, rows.cancelCount);
+		assertEquals(0, rows.closeCount);
+
+		// Once stopped, it stays stopped
+		assertFalse(budget.next(rows.asResultSet()));
+	}
+
+	@Test
+	public void testByteBudget() throws SQLException {
+		FakeResultSet rows = makeRows(10, false);
+
+		JDBCReadBudget budget = new JDBCReadBudget(0, 20);
+
+		assertEquals(3, readAll(budget, rows));
+		assertTrue(budget.isTruncated());
+		assertEquals(1, rows.cancelCount);
+		assertEquals(0, rows.closeCount);
+	}
+
+	@Test
+	public void testScrollableCountsRemaining() throws SQLException {
+		FakeResultSet rows = makeRows(10, true);
+
+		JDBCReadBudget budget = new JDBCReadBudget(3, 0);
+
+		assertEquals(3, readAll(budget, rows));
+		assertEquals(7, budget.getOmittedRowCount());
+		assertEquals(0, rows.closeCount);
+	}
+
+	@Test
+	public void testWithinBudget() throws SQLException {
+		// Exactly as many rows as the limit isn't truncated
+		FakeResultSet rows = makeRows(3, true);
+
+		JDBCReadBudget budget = new JDBCReadBudget(3, 0);
+
+		assertEquals(3, readAll(budget, rows));
+		assertFalse(budget.isTruncated());
+		assertEquals(0, rows.cancelCount);
+
+		rows = makeRows(100, false);
+
+		assertEquals(100, readAll(new JDBCReadBudget(0, 0), rows));
+	}
+
+	@Test
+	public void testFooter() {
+		SimpleASCIITableImpl renderer = new SimpleASCIITableImpl();
+
+		FakeResultSet rows = makeRows(1234, true);
+
+		String table = renderer.getTable(new JDBCASCIITableAware(rows
+				.asResultSet(), 2, 0));
+
+		assertTrue(table, table.endsWith("+\n... "
+				+ NumberFormat.getIntegerInstance().format(1232)
+				+ " more rows not shown\n"));
+		assertEquals(0, rows.closeCount);
+
+		table = renderer.getTable(new JDBCASCIITableAware(makeRows(3, true)
+				.asResultSet(), 2, 0));
+
+		assertTrue(table, table.endsWith("+\n... 1 more row not shown\n"));
+
+		table = renderer.getTable(new JDBCASCIITableAware(makeRows(10,
+				false).asResultSet(), 2, 0));
+
+		assertTrue(table, table.endsWith("+\n... more rows not shown\n"));
+
+		// No footer when nothing was left out
+		table = renderer.getTable(new JDBCASCIITableAware(makeRows(2, false)
+				.asResultSet(), 2, 0));
+
+		assertTrue(table, table.endsWith("+\n"));
+		assertFalse(table, table.contains("not shown"));
+	}
+
+	@Test
+	public void testStreamedFooter() throws IOException {
+		FakeResultSet rows = makeRows(10, true);
+
+		StringWriter writer = new StringWriter();
+
+		new SimpleASCIITableImpl().renderTo(writer,
+				new JDBCASCIITableRowSource(rows.asResultSet(), 0, 0, 2, 0));
+
+		String table = writer.toString();
+
+		assertTrue(table, table.endsWith("+\n... 8 more rows not shown\n"));
+		assertEquals(1, rows.cancelCount);
+		assertEquals(0, rows.closeCount);
+	}
+}
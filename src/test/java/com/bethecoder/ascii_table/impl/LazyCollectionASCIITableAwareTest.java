@@ -0,0 +1,113 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Checks that lazy bean tables render the same as eager ones
+ * 
+ * @author ben
+ *
+ */
+public class LazyCollectionASCIITableAwareTest {
+	/*
+	 * A linked list that counts reads by index
+	 */
+	private static final class CountingList extends LinkedList<Object> {
+		private static final long	serialVersionUID	= 1L;
+
+		private int					indexedReads;
+
+		@Override
+		public Object get(int index) {
+			indexedReads++;
+
+			return super.get(index);
+		}
+	}
+
+	private static final SimpleASCIITableImpl RENDERER = new SimpleASCIITableImpl();
+
+	private static String renderEagerly(List<Object> beans,
+			String... properties) {
+		return RENDERER.getTable(new CollectionASCIITableAware(beans,
+				properties));
+	}
+
+	@Test
+	public void testSameAsEager() {
+		List<Object> beans = new ArrayList<>();
+
+		for (int i = 0; i < 5; i++) {
+			beans.add(new CollectionASCIITableAwareTest.Bean());
+		}
+
+		assertEquals(renderEagerly(beans, "name", "size", "active"),
+				RENDERER.getTable(new LazyCollectionASCIITableAware(beans,
+						"name", "size", "active")));
+	}
+
+	@Test
+	public void testLinkedList() {
+		CountingList beans = new CountingList();
+
+		for (int i = 0; i < 1000; i++) {
+			beans.add(new CollectionASCIITableAwareTest.Bean());
+		}
+
+		String table = RENDERER.getTable(new LazyCollectionASCIITableAware(
+				beans, "name", "size"));
+
+		// Reading row by row from a linked list is quadratic
+		assertEquals(0, beans.indexedReads);
+		assertEquals(renderEagerly(beans, "name", "size"), table);
+	}
+
+	@Test
+	public void testBeansFromChildClassLoader()
+			throws ReflectiveOperationException {
+		Object bean = ChildClassLoader
+				.loadCopy(CollectionASCIITableAwareTest.Bean.class)
+				.getConstructor().newInstance();
+
+		assertEquals(
+				renderEagerly(Collections.singletonList(
+						(Object) new CollectionASCIITableAwareTest.Bean()),
+						"name", "size", "active"),
+				RENDERER.getTable(new LazyCollectionASCIITableAware(
+						Collections.singletonList(bean), "name", "size",
+						"active")));
+	}
+
+	@Test
+	public void testProject() {
+		List<Object> beans = Collections
+				.singletonList(new CollectionASCIITableAwareTest.Bean());
+
+		assertEquals(renderEagerly(beans, "active", "name"),
+				RENDERER.getTable(new LazyCollectionASCIITableAware(beans,
+						"name", "size", "active").project("active", "name")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testProjectMissingProperty() {
+		new LazyCollectionASCIITableAware(
+				Collections.singletonList(
+						new CollectionASCIITableAwareTest.Bean()),
+				"name").project("size");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testProjectWithoutProperties() {
+		new LazyCollectionASCIITableAware(
+				Collections.singletonList(
+						new CollectionASCIITableAwareTest.Bean()),
+				null, null).project("name");
+	}
+}
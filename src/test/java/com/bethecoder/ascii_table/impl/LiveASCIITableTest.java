@@ -0,0 +1,185 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+
+/**
+ * Checks what a live table writes out as rows come in: just the new row
+ * while it fits, the whole table again when a column widens, and the
+ * bottom border at the end
+ *
+ * @author ben
+ *
+ */
+public class LiveASCIITableTest {
+	private static final ASCIITableHeader[] HEADERS = {
+			new ASCIITableHeader("Name"), new ASCIITableHeader("Size") };
+
+	/*
+	 * Render rows in one go, without the bottom border
+	 */
+	private static String withoutBottom(List<String[]> rows) {
+		String table = new SimpleASCIITableImpl().getTable(HEADERS,
+				rows.toArray(new String[0][]));
+
+		String separator = table.substring(0, table.indexOf('\n') + 1);
+
+		return table.substring(0, table.length() - separator.length());
+	}
+
+	@Test
+	public void testAppend() throws IOException {
+		StringBuilder out = new StringBuilder();
+
+		LiveASCIITable table = new LiveASCIITable(HEADERS, out);
+
+		List<String[]> rows = new ArrayList<>();
+
+		// The first row writes the whole table
+		rows.add(new String[] { "a", "1" });
+
+		assertFalse(table.append("a", "1"));
+		assertEquals(withoutBottom(rows), out.toString());
+
+		// Rows that fit are written on their own
+		int length = out.length();
+
+		rows.add(new String[] { "bcd", "22" });
+
+		assertFalse(table.append("bcd", "22"));
+		assertEquals("|  bcd |   22 |\n", out.substring(length));
+
+		// Wide characters fit by the columns they take up, not their count
+		length = out.length();
+
+		rows.add(new String[] { "中文", "" });
+
+		assertFalse(table.append("中文", ""));
+		assertEquals("| 中文 |      |\n", out.substring(length));
+
+		assertEquals(withoutBottom(rows), out.toString());
+		assertEquals(3, table.getRowCount());
+	}
+
+	@Test
+	public void testRewriteAfterWiden() throws IOException {
+		StringBuilder out = new StringBuilder();
+
+		LiveASCIITable table = new LiveASCIITable(HEADERS, out);
+
+		List<String[]> rows = new ArrayList<>();
+
+		rows.add(new String[] { "a", "1" });
+		rows.add(new String[] { "b", "2" });
+
+		table.append("a", "1");
+		table.append("b", "2");
+
+		// A wider cell rewrites everything after what's already out
+		int length = out.length();
+
+		rows.add(new String[] { "a much longer name", "3" });
+
+		assertTrue(table.append("a much longer name", "3"));
+		assertEquals(withoutBottom(rows), out.substring(length));
+
+		// So does a row with more columns than before
+		length = out.length();
+
+		rows.add(new String[] { "c", "4", "extra" });
+
+		assertTrue(table.append("c", "4", "extra"));
+		assertEquals(withoutBottom(rows), out.substring(length));
+
+		// And then rows that fit go back to being written on their own
+		length = out.length();
+
+		rows.add(new String[] { "d", "5" });
+
+		assertFalse(table.append("d", "5"));
+		assertEquals("|                  d |    5 |       |\n", out
+				.substring(length));
+	}
+
+	@Test
+	public void testFinish() throws IOException {
+		StringBuilder out = new StringBuilder();
+
+		LiveASCIITable table = new LiveASCIITable(HEADERS, out);
+
+		List<String[]> rows = new ArrayList<>();
+
+		rows.add(new String[] { "a", "1" });
+		table.append("a", "1");
+
+		int rewriteStart = out.length();
+
+		rows.add(new String[] { "a much longer name", "2" });
+		table.append("a much longer name", "2");
+
+		rows.add(new String[] { "b", "3" });
+		table.append("b", "3");
+
+		assertEquals(withoutBottom(rows), out.substring(rewriteStart));
+
+		table.finish();
+
+		// The last rewrite, the rows after it, and the bottom border make
+		// up the finished table
+		String expected = new SimpleASCIITableImpl().getTable(HEADERS,
+				rows.toArray(new String[0][]));
+
+		assertEquals(expected, out.substring(rewriteStart));
+		assertEquals(expected, table.getTable());
+	}
+
+	@Test
+	public void testFinishEmpty() throws IOException {
+		StringBuilder out = new StringBuilder();
+
+		LiveASCIITable table = new LiveASCIITable(HEADERS, out);
+
+		table.finish();
+
+		String separator = "+------+------+\n";
+
+		assertEquals(separator + "| Name | Size |\n" + separator
+				+ separator, out.toString());
+		assertEquals(out.toString(), table.getTable());
+	}
+
+	@Test
+	public void testFlushes() throws IOException {
+		final int[] flushes = new int[1];
+
+		StringWriter out = new StringWriter() {
+			@Override
+			public void flush() {
+				flushes[0]++;
+			}
+		};
+
+		LiveASCIITable table = new LiveASCIITable(HEADERS, out);
+
+		table.append("a", "1");
+		table.append("b", "2");
+		table.append("a much longer name", "3");
+
+		assertEquals(3, flushes[0]);
+
+		table.finish();
+
+		assertEquals(4, flushes[0]);
+		assertTrue(out.toString().endsWith(table.getTable()));
+	}
+}
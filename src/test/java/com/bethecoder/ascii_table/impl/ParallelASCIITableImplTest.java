@@ -0,0 +1,167 @@
+package com.bethecoder.ascii_table.impl;
+
+import static com.bethecoder.ascii_table.TestTables.makeHeaders;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.TestTables;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+
+/**
+ * Checks that the parallel renderer writes exactly the same text as the
+ * serial one
+ * 
+ * @author ben
+ *
+ */
+public class ParallelASCIITableImplTest {
+	private static ForkJoinPool				pool;
+
+	private static SimpleASCIITableImpl		serial;
+	private static ParallelASCIITableImpl	parallel;
+
+	@BeforeClass
+	public static void setUp() {
+		pool = new ForkJoinPool(3);
+
+		serial = new SimpleASCIITableImpl();
+		parallel = new ParallelASCIITableImpl(pool);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		pool.shutdown();
+	}
+
+	private static String[][] makeData(long seed, int rowCount,
+			int columnCount) {
+		return TestTables.makeData(new Random(seed), rowCount, columnCount);
+	}
+
+	private static void assertSameTable(ASCIITableHeader[] headers,
+			String[][] data) throws IOException {
+		String expected = serial.getTable(headers, data);
+
+		assertEquals(expected, parallel.getTable(headers, data));
+
+		StringWriter writer = new StringWriter();
+
+		parallel.renderTo(writer, headers, data);
+
+		assertEquals(expected, writer.toString());
+	}
+
+	@Test
+	public void testAlignments() throws IOException {
+		String[][] data = makeData(1, ParallelASCIITableImpl.CHUNK_SIZE * 3
+				+ 7, 5);
+
+		for (AlignmentValues headerAlign : AlignmentValues.values()) {
+			for (AlignmentValues dataAlign : AlignmentValues.values()) {
+				assertSameTable(makeHeaders(5, headerAlign, dataAlign), data);
+			}
+		}
+	}
+
+	@Test
+	public void testChunkBoundaries() throws IOException {
+		int chunk = ParallelASCIITableImpl.CHUNK_SIZE;
+
+		// A window of chunks is twice the pool's parallelism
+		int window = chunk * pool.getParallelism() * 2;
+
+		int[] rowCounts = { 1, chunk - 1, chunk, chunk + 1, chunk * 2,
+				chunk * 2 + 1, window - 1, window, window + 1,
+				window * 2 + chunk / 2 };
+
+		for (int rowCount : rowCounts) {
+			assertSameTable(makeHeaders(4, AlignmentValues.ALIGN_CENTER,
+					AlignmentValues.ALIGN_RIGHT), makeData(rowCount, rowCount,
+					4));
+		}
+	}
+
+	@Test
+	public void testWidestCellInLastChunk() throws IOException {
+		String[][] data = makeData(2, ParallelASCIITableImpl.CHUNK_SIZE * 4,
+				3);
+
+		data[data.length - 1] = new String[] { "x", "y",
+				"a much wider cell than any other in the column" };
+
+		assertSameTable(makeHeaders(3, AlignmentValues.ALIGN_LEFT,
+				AlignmentValues.ALIGN_LEFT), data);
+	}
+
+	@Test
+	public void testNoHeaders() throws IOException {
+		String[][] data = makeData(3, ParallelASCIITableImpl.CHUNK_SIZE * 2
+				+ 3, 6);
+
+		assertSameTable(null, data);
+		assertSameTable(new ASCIITableHeader[0], data);
+	}
+
+	@Test
+	public void testMoreHeadersThanData() throws IOException {
+		assertSameTable(makeHeaders(8, AlignmentValues.ALIGN_RIGHT,
+				AlignmentValues.ALIGN_CENTER), makeData(4,
+				ParallelASCIITableImpl.CHUNK_SIZE + 1, 3));
+	}
+
+	@Test
+	public void testEmptyCells() throws IOException {
+		int rowCount = ParallelASCIITableImpl.CHUNK_SIZE * 2 + 1;
+
+		String[][] data = new String[rowCount][];
+
+		for (int i = 0; i < rowCount; i++) {
+			data[i] = new String[] { "", "", "" };
+		}
+
+		assertSameTable(makeHeaders(3, AlignmentValues.ALIGN_CENTER,
+				AlignmentValues.ALIGN_CENTER), data);
+
+		for (int i = 0; i < rowCount; i++) {
+			data[i] = new String[0];
+		}
+
+		assertSameTable(makeHeaders(2, AlignmentValues.ALIGN_CENTER,
+				AlignmentValues.ALIGN_CENTER), data);
+	}
+
+	@Test
+	public void testEmptyTable() {
+		String[][][] empties = { null, new String[0][] };
+
+		for (String[][] data : empties) {
+			String serialMessage = null;
+
+			try {
+				serial.getTable(makeHeaders(2, AlignmentValues.ALIGN_LEFT,
+						AlignmentValues.ALIGN_LEFT), data);
+				fail("Serial renderer accepted an empty table");
+			} catch (IllegalArgumentException iaex) {
+				serialMessage = iaex.getMessage();
+			}
+
+			try {
+				parallel.getTable(makeHeaders(2, AlignmentValues.ALIGN_LEFT,
+						AlignmentValues.ALIGN_LEFT), data);
+				fail("Parallel renderer accepted an empty table");
+			} catch (IllegalArgumentException iaex) {
+				assertEquals(serialMessage, iaex.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+import com.bethecoder.ascii_table.spec.IASCIITable;
+import com.bethecoder.ascii_table.spec.IASCIITableAware;
+
+/**
+ * Checks that building a table in a string, which guesses every cell is
+ * ASCII until it finds one that isn't, writes exactly what measuring every
+ * cell does, wherever the first cell that isn't ASCII turns up
+ *
+ * @author ben
+ *
+ */
+public class SimpleASCIITableImplTest {
+	private static ForkJoinPool				pool;
+
+	private static SimpleASCIITableImpl		serial;
+	private static ParallelASCIITableImpl	parallel;
+
+	@BeforeClass
+	public static void setUp() {
+		pool = new ForkJoinPool(3);
+
+		serial = new SimpleASCIITableImpl();
+		parallel = new ParallelASCIITableImpl(pool);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		pool.shutdown();
+	}
+
+	private static ASCIITableHeader[] makeHeaders() {
+		return new ASCIITableHeader[] {
+				new ASCIITableHeader("Name", AlignmentValues.ALIGN_LEFT),
+				new ASCIITableHeader("Code", AlignmentValues.ALIGN_CENTER),
+				new ASCIITableHeader("Count", AlignmentValues.ALIGN_RIGHT) };
+	}
+
+	/*
+	 * Make a table of ASCII cells, none more than ten characters long
+	 */
+	private static String[][] makeData(int rowCount) {
+		String[][] data = new String[rowCount][];
+
+		for (int i = 0; i < rowCount; i++) {
+			data[i] = new String[] { "name-" + i, "code-" + (i % 100),
+					Integer.toString(i * 7 % 10001) };
+		}
+
+		return data;
+	}
+
+	/*
+	 * Put a cell in a copy of a table
+	 */
+	private static String[][] withCell(String[][] data, int row, int col,
+			String cell) {
+		String[][] copy = data.clone();
+
+		copy[row] = Arrays.copyOf(data[row], Math.max(col + 1,
+				data[row].length));
+		copy[row][col] = cell;
+
+		return copy;
+	}
+
+	private static IASCIITableAware<String> asAware(
+			final ASCIITableHeader[] headers, final String[][] data) {
+		return new IASCIITableAware<String>() {
+			@Override
+			public String formatData(ASCIITableHeader header, int row,
+					int col, String data) {
+				return data;
+			}
+
+			@Override
+			public List<List<String>> getData() {
+				List<List<String>> rows = new ArrayList<>(data.length);
+
+				for (String[] row : data) {
+					rows.add(Arrays.asList(row));
+				}
+
+				return rows;
+			}
+
+			@Override
+			public List<ASCIITableHeader> getHeaders() {
+				return Arrays.asList(headers);
+			}
+		};
+	}
+
+	/*
+	 * Check a renderer builds the same string as it writes out, both from
+	 * arrays and from a source
+	 */
+	private static void assertSameAsMeasured(IASCIITable renderer,
+			ASCIITableHeader[] headers, String[][] data) throws IOException {
+		StringWriter writer = new StringWriter();
+
+		renderer.renderTo(writer, headers, data);
+
+		assertEquals(writer.toString(), renderer.getTable(headers, data));
+
+		writer = new StringWriter();
+
+		renderer.renderTo(writer, asAware(headers, data));
+
+		assertEquals(writer.toString(), renderer.getTable(asAware(headers,
+				data)));
+	}
+
+	private static void assertSameAsMeasured(ASCIITableHeader[] headers,
+			String[][] data) throws IOException {
+		assertSameAsMeasured(serial, headers, data);
+		assertSameAsMeasured(parallel, headers, data);
+	}
+
+	/*
+	 * Put each cell somewhere in a small table and a table big enough to
+	 * be written in parallel
+	 */
+	private static void assertSameWithCell(String cell) throws IOException {
+		int[] rowCounts = { 3, ParallelASCIITableImpl.CHUNK_SIZE * 5 + 3 };
+
+		for (int rowCount : rowCounts) {
+			String[][] data = makeData(rowCount);
+
+			int[] rows = { 0, 1, rowCount / 2,
+					Math.min(ParallelASCIITableImpl.CHUNK_SIZE, rowCount - 1),
+					rowCount - 1 };
+
+			for (int row : rows) {
+				for (int col = 0; col < 3; col++) {
+					assertSameAsMeasured(makeHeaders(), withCell(data, row,
+							col, cell));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testASCII() throws IOException {
+		assertSameAsMeasured(makeHeaders(), makeData(3));
+		assertSameAsMeasured(makeHeaders(), makeData(
+				ParallelASCIITableImpl.CHUNK_SIZE * 3 + 1));
+	}
+
+	@Test
+	public void testSameWidth() throws IOException {
+		// As long in characters as it is wide
+		assertSameWithCell("ab");
+		assertSameWithCell("café");
+	}
+
+	@Test
+	public void testWidens() throws IOException {
+		assertSameWithCell("中文中文中文中文中文中文");
+		assertSameWithCell("😀😀😀😀😀😀😀😀😀😀😀");
+	}
+
+	@Test
+	public void testNarrows() throws IOException {
+		// Longer in characters than any other cell, but no wider
+		assertSameWithCell("e\u0301e\u0301e\u0301e\u0301e\u0301e\u0301");
+		assertSameWithCell("x\u0301\u0301\u0301\u0301\u0301\u0301\u0301"
+				+ "\u0301\u0301\u0301\u0301\u0301\u0301\u0301\u0301");
+	}
+
+	@Test
+	public void testEveryRow() throws IOException {
+		String[][] data = makeData(ParallelASCIITableImpl.CHUNK_SIZE * 2 + 1);
+
+		for (String[] row : data) {
+			row[1] = "中" + row[1];
+		}
+
+		assertSameAsMeasured(makeHeaders(), data);
+	}
+
+	@Test
+	public void testShortRows() throws IOException {
+		String[][] data = makeData(ParallelASCIITableImpl.CHUNK_SIZE + 5);
+
+		data[2] = new String[] { "中" };
+		data[data.length - 1] = new String[0];
+
+		assertSameAsMeasured(makeHeaders(), data);
+	}
+}
@@ -0,0 +1,152 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.TestTables;
+
+/**
+ * Checks that tables written to files, through a channel or mapped, come
+ * back exactly as the renderer writes them, replace what was in the file
+ * before, and fail on text UTF-8 can't encode
+ *
+ * @author ben
+ *
+ */
+public class TableFileExporterTest {
+	@Rule
+	public TemporaryFolder		folder	= new TemporaryFolder();
+
+	private static final int	SMALL_BUFFER	= 64;
+
+	private static ASCIITableHeader[] makeHeaders() {
+		return new ASCIITableHeader[] { new ASCIITableHeader("Name"),
+				new ASCIITableHeader("Value"), new ASCIITableHeader("中文") };
+	}
+
+	/*
+	 * Write a table to a file both ways, with a buffer small enough that
+	 * rows don't fit in it, and check what comes back
+	 */
+	private void assertRoundTrip(ASCIITableHeader[] headers,
+			String[][] data) throws IOException {
+		String expected = new SimpleASCIITableImpl().getTable(headers, data);
+
+		byte[] expectedBytes = expected.getBytes(StandardCharsets.UTF_8);
+
+		TableFileExporter exporter = new TableFileExporter(
+				new SimpleASCIITableImpl(), SMALL_BUFFER);
+
+		Path file = folder.newFile().toPath();
+
+		assertEquals(expectedBytes.length, exporter.export(file, headers,
+				data));
+		assertEquals(expected, new String(Files.readAllBytes(file),
+				StandardCharsets.UTF_8));
+
+		file = folder.newFile().toPath();
+
+		assertEquals(expectedBytes.length, exporter.exportMapped(file,
+				headers, data));
+		assertEquals(expected, new String(Files.readAllBytes(file),
+				StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testSmallTable() throws IOException {
+		assertRoundTrip(makeHeaders(), new String[][] {
+				{ "a", "1", "x" }, { "a much longer cell than the buffer"
+						+ " holds, so it has to be written in pieces",
+						"é", "😀" }, { "" } });
+	}
+
+	@Test
+	public void testMappedRegions() throws IOException {
+		// Big enough to map, with wide characters that spill past the map
+		String[][] data = TestTables.makeData(new Random(5), 5000, 4);
+
+		assertRoundTrip(makeHeaders(), data);
+		assertRoundTrip(null, data);
+	}
+
+	@Test
+	public void testReplacesLongerFile() throws IOException {
+		TableFileExporter exporter = new TableFileExporter();
+
+		String[][] big = TestTables.makeData(new Random(6), 5000, 4);
+		String[][] small = { { "a", "b" } };
+
+		String expected = new SimpleASCIITableImpl().getTable(makeHeaders(),
+				small);
+
+		Path file = folder.newFile().toPath();
+
+		exporter.exportMapped(file, makeHeaders(), big);
+
+		long written = exporter.exportMapped(file, makeHeaders(), small);
+
+		// Nothing is left over from the bigger table
+		assertEquals(written, Files.size(file));
+		assertEquals(expected, new String(Files.readAllBytes(file),
+				StandardCharsets.UTF_8));
+
+		exporter.export(file, makeHeaders(), big);
+
+		written = exporter.export(file, makeHeaders(), small);
+
+		assertEquals(written, Files.size(file));
+		assertEquals(expected, new String(Files.readAllBytes(file),
+				StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testUnpairedSurrogate() throws IOException {
+		TableFileExporter exporter = new TableFileExporter(
+				new SimpleASCIITableImpl(), SMALL_BUFFER);
+
+		String[][] data = TestTables.makeData(new Random(7), 50, 3);
+
+		// Half an emoji in the middle of the table
+		data[25] = Arrays.copyOf(data[25], 3);
+		data[25][1] = "broken \uD83D here";
+
+		Path file = folder.newFile().toPath();
+
+		try {
+			exporter.export(file, makeHeaders(), data);
+			fail("Wrote an unpaired surrogate through the channel");
+		} catch (@SuppressWarnings("unused") CharacterCodingException ccex) {
+			// Expected
+		}
+
+		try {
+			exporter.exportMapped(file, makeHeaders(), data);
+			fail("Wrote an unpaired surrogate to a mapped file");
+		} catch (@SuppressWarnings("unused") CharacterCodingException ccex) {
+			// Expected
+		}
+
+		// In a header, which is encoded on its own
+		try {
+			exporter.export(file, new ASCIITableHeader[] {
+					new ASCIITableHeader("\uDE00") }, new String[][] { {
+					"a" } });
+			fail("Wrote an unpaired surrogate in a header");
+		} catch (@SuppressWarnings("unused") CharacterCodingException ccex) {
+			// Expected
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+import com.bethecoder.ascii_table.spec.OverflowValues;
+
+/**
+ * Checks how rows are written when cells are wider than their columns,
+ * cut off with an ellipsis or wrapped onto more lines
+ *
+ * @author ben
+ *
+ */
+public class TableLayoutTest {
+	/*
+	 * Make a layout of left aligned columns of the given widths
+	 */
+	private static TableLayout makeLayout(int... columnWidths) {
+		ASCIITableHeader[] headers = new ASCIITableHeader[columnWidths.length];
+
+		for (int i = 0; i < headers.length; i++) {
+			headers[i] = new ASCIITableHeader("" + (char) ('A' + i),
+					AlignmentValues.ALIGN_LEFT);
+		}
+
+		return new TableLayout(headers, columnWidths);
+	}
+
+	private static String render(TableLayout layout,
+			OverflowValues overflow, String... row) {
+		StringBuilder rowBuilder = new StringBuilder();
+
+		layout.appendDataRow(rowBuilder, row, overflow);
+
+		return rowBuilder.toString();
+	}
+
+	@Test
+	public void testTruncate() {
+		TableLayout layout = makeLayout(5, 4);
+
+		String[] row = { "abcdefgh", "ab" };
+
+		assertEquals("| ab... | ab   |\n", render(layout,
+				OverflowValues.OVERFLOW_TRUNCATE, row));
+
+		// The caller's row is left alone
+		assertArrayEquals(new String[] { "abcdefgh", "ab" }, row);
+
+		// Cells that just fit aren't cut
+		assertEquals("| abcde | abcd |\n", render(layout,
+				OverflowValues.OVERFLOW_TRUNCATE, "abcde", "abcd"));
+	}
+
+	@Test
+	public void testTruncateNarrow() {
+		// Too narrow for an ellipsis, so the cell is just cut
+		assertEquals("| abc |\n", render(makeLayout(3),
+				OverflowValues.OVERFLOW_TRUNCATE, "abcdef"));
+		assertEquals("| 中  |\n", render(makeLayout(3),
+				OverflowValues.OVERFLOW_TRUNCATE, "中文"));
+		assertEquals("|   |\n", render(makeLayout(1),
+				OverflowValues.OVERFLOW_TRUNCATE, "中文"));
+	}
+
+	@Test
+	public void testTruncateWide() {
+		// The ellipsis takes three columns, leaving two for the text
+		assertEquals("| 中... |\n", render(makeLayout(5),
+				OverflowValues.OVERFLOW_TRUNCATE, "中文中文"));
+
+		// One column isn't enough for half a wide character
+		assertEquals("| ...  |\n", render(makeLayout(4),
+				OverflowValues.OVERFLOW_TRUNCATE, "中文中"));
+		assertEquals("| ...  |\n", render(makeLayout(4),
+				OverflowValues.OVERFLOW_TRUNCATE, "😀😀😀"));
+
+		// Accents stay on their letters
+		assertEquals("| e\u0301e\u0301... |\n", render(makeLayout(5),
+				OverflowValues.OVERFLOW_TRUNCATE,
+				"e\u0301e\u0301e\u0301e\u0301e\u0301e\u0301"));
+	}
+
+	@Test
+	public void testWrap() {
+		TableLayout layout = makeLayout(3, 2);
+
+		assertEquals("| abc | x  |\n" //
+				+ "| def |    |\n" //
+				+ "| g   |    |\n", render(layout,
+				OverflowValues.OVERFLOW_WRAP, "abcdefg", "x"));
+
+		// Cells that fit take one line
+		assertEquals("| abc | xy |\n", render(layout,
+				OverflowValues.OVERFLOW_WRAP, "abc", "xy"));
+
+		// Missing cells are blank on every line
+		assertEquals("| abc |    |\n" //
+				+ "| d   |    |\n", render(layout,
+				OverflowValues.OVERFLOW_WRAP, "abcd"));
+	}
+
+	@Test
+	public void testWrapWide() {
+		// Wide characters never get split across lines
+		assertEquals("| 中  |\n" //
+				+ "| 文  |\n" //
+				+ "| 中  |\n", render(makeLayout(3),
+				OverflowValues.OVERFLOW_WRAP, "中文中"));
+
+		assertEquals("| a中 |\n" //
+				+ "| 文b |\n", render(makeLayout(3),
+				OverflowValues.OVERFLOW_WRAP, "a中文b"));
+
+		// Nor do surrogate pairs
+		assertEquals("| 😀 |\n" //
+				+ "| a  |\n" //
+				+ "| 😀 |\n", render(makeLayout(2),
+				OverflowValues.OVERFLOW_WRAP, "😀a😀"));
+
+		// A wide character in a column too narrow for it still gets a line
+		assertEquals("| 中 |\n" //
+				+ "| 文 |\n", render(makeLayout(1),
+				OverflowValues.OVERFLOW_WRAP, "中文"));
+	}
+}
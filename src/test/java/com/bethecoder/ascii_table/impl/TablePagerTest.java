@@ -0,0 +1,121 @@
+package com.bethecoder.ascii_table.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bethecoder.ascii_table.ASCIITableHeader;
+import com.bethecoder.ascii_table.TestTables;
+import com.bethecoder.ascii_table.spec.AlignmentValues;
+
+/**
+ * Checks page counts, and that pages line up with each other and hold
+ * the same rows as the whole table
+ *
+ * @author ben
+ *
+ */
+public class TablePagerTest {
+	private static TablePager makePager(int rowCount) {
+		return new TablePager(TestTables.makeHeaders(3,
+				AlignmentValues.ALIGN_CENTER, AlignmentValues.ALIGN_LEFT),
+				TestTables.makeData(new Random(rowCount), rowCount, 3));
+	}
+
+	/*
+	 * Get the data lines of a table, without its header or borders
+	 */
+	private static String getRows(String table) {
+		String[] lines = table.split("\n", -1);
+
+		StringBuilder rows = new StringBuilder();
+
+		// Skip the separator, header and separator at the top, and the
+		// separator and empty last line at the bottom
+		for (int i = 3; i < lines.length - 2; i++) {
+			rows.append(lines[i]).append('\n');
+		}
+
+		return rows.toString();
+	}
+
+	@Test
+	public void testPageCount() {
+		assertEquals(0, makePager(0).getPageCount(10));
+		assertEquals(1, makePager(1).getPageCount(10));
+		assertEquals(1, makePager(10).getPageCount(10));
+		assertEquals(2, makePager(11).getPageCount(10));
+		assertEquals(3, makePager(21).getPageCount(10));
+		assertEquals(21, makePager(21).getPageCount(1));
+	}
+
+	@Test
+	public void testHugePageSize() {
+		// Adding the page size to the row count would overflow
+		assertEquals(0, makePager(0).getPageCount(Integer.MAX_VALUE));
+		assertEquals(1, makePager(5).getPageCount(Integer.MAX_VALUE));
+		assertEquals(1, makePager(5).getPageCount(Integer.MAX_VALUE - 2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroPageSize() {
+		makePager(5).getPageCount(0);
+	}
+
+	@Test
+	public void testPages() {
+		ASCIITableHeader[] headers = TestTables.makeHeaders(3,
+				AlignmentValues.ALIGN_RIGHT, AlignmentValues.ALIGN_CENTER);
+		String[][] data = TestTables.makeData(new Random(2), 47, 3);
+
+		TablePager pager = new TablePager(headers, data);
+
+		// One page of everything is the whole table
+		String whole = pager.getPage(0, data.length);
+
+		assertEquals(new SimpleASCIITableImpl().getTable(headers, data),
+				whole);
+
+		TableLayout layout = pager.getLayout();
+
+		String top = layout.getSeparatorLine() + layout.getHeaderLine()
+				+ layout.getSeparatorLine();
+
+		StringBuilder pagedRows = new StringBuilder();
+
+		int pageSize = 10;
+
+		for (int page = 0; page < pager.getPageCount(pageSize); page++) {
+			int from = page * pageSize;
+			int to = Math.min(from + pageSize, data.length);
+
+			String text = pager.getPage(from, to);
+
+			// Every page has the same borders and header
+			assertTrue(text, text.startsWith(top));
+			assertTrue(text, text.endsWith(layout.getSeparatorLine()));
+
+			pagedRows.append(getRows(text));
+		}
+
+		assertEquals(getRows(whole), pagedRows.toString());
+	}
+
+	@Test
+	public void testWidensLayout() {
+		ASCIITableHeader[] headers = { new ASCIITableHeader("A"),
+				new ASCIITableHeader("B") };
+		String[][] data = { { "a", "b" }, { "wider", "中文中文" } };
+
+		TablePager pager = new TablePager(new TableLayout(headers,
+				new int[] { 1, 1 }), data);
+
+		assertEquals(5, pager.getLayout().getColumnWidth(0));
+		assertEquals(8, pager.getLayout().getColumnWidth(1));
+		assertEquals(new SimpleASCIITableImpl().getTable(headers, data),
+				pager.getPage(0, 2));
+	}
+}